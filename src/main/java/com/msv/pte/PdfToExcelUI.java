@@ -1,5 +1,6 @@
 package com.msv.pte;
 
+import com.msv.pte.cli.PdfToExcelCli;
 import com.msv.pte.ui.PdfToExcelFrame;
 
 import javax.swing.UIManager;
@@ -8,10 +9,14 @@ import javax.swing.SwingUtilities;
 /**
  * Entry point for the PDF to Excel Processor application.
  * Sets the native look and feel and initializes the main UI frame.
+ * When arguments are given, the application runs headless via {@link PdfToExcelCli}.
  */
 public class PdfToExcelUI {
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(PdfToExcelCli.run(args));
+        }
         SwingUtilities.invokeLater(() -> {
             setNativeLookAndFeel();
             PdfToExcelFrame mainFrame = new PdfToExcelFrame();
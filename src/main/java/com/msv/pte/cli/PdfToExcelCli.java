@@ -0,0 +1,182 @@
+package com.msv.pte.cli;
+
+import com.msv.pte.core.DocumentParsers;
+import com.msv.pte.core.FolderWatcher;
+import com.msv.pte.core.PdfToExcelController;
+import com.msv.pte.core.ProcessingOptions;
+import com.msv.pte.export.OutputFormat;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless command line front end for batch runs.
+ * Started by {@link com.msv.pte.PdfToExcelUI} whenever program arguments are given.
+ */
+public class PdfToExcelCli {
+
+    private static final long SHUTDOWN_GRACE_MILLIS = 10_000;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: --input <pdf-folder> --output <file> [options]",
+            "  --format <xlsx|csv|tsv|columnar>   Output format (default: xlsx)",
+            "  --auftragsinfo                     Use the second approach (Auftragsinfo)",
+            "  --parser <name>                    Parser for all PDFs: confirmation, auftragsinfo, auftragsinfo-lines",
+            "  --detect-layout                    Choose the parser per PDF from its first page (others: fallback)",
+            "  --recursive                        Include PDFs in subfolders",
+            "  --include <glob>                   Only process PDFs matching the glob (repeatable)",
+            "  --exclude <glob>                   Skip PDFs or folders matching the glob (repeatable)",
+            "  --modified-since <date|instant>    Only process PDFs modified since, e.g. 2024-05-01",
+            "  --zip                              Also read PDFs inside ZIP archives (without extracting)",
+            "  --append                           Merge new rows into an existing output",
+            "  --dedup                            Drop duplicate rows, the most recent PDF wins",
+            "  --dedup-index <file>               Also skip rows exported by earlier runs (implies --dedup)",
+            "  --watch                            Keep running and append rows of newly arriving PDFs (csv/tsv only)",
+            "  --debounce <ms>                    Watch mode: time a new file must be unchanged (default: 2000)",
+            "  --roll-daily                       Watch mode: start a new output file every day",
+            "  --parallel                         Read PDFs concurrently and parse them on all cores",
+            "  --parser-threads <n>               Parallel mode: number of parser threads (default: cores)",
+            "  --schedule <source|largest-first>  Parallel mode: start order of the PDFs (default: source)",
+            "  --cost-model <file>                Learn per-PDF processing times for largest-first scheduling",
+            "  --profile-allocations              Report heap bytes allocated per stage, page and row",
+            "  --resume                           Continue a cancelled run from its checkpoint journal",
+            "  --checkpoint-every <n>             PDFs between two journal checkpoints (default: 25)",
+            "  --max-rows <n>                     Rows per sheet/workbook shard (xlsx only)",
+            "  --shard-target <sheet|workbook>    Where shards are written (xlsx only)",
+            "  --shard-by <none|branch|week>      Split rows by branch code or delivery week (xlsx only)");
+
+    /**
+     * Parses the arguments and runs the processing synchronously.
+     *
+     * @param args Command line arguments.
+     * @return Process exit code (0 on success, 1 on I/O errors or a failed or
+     *         cancelled run, 2 on invalid arguments).
+     */
+    public static int run(String[] args) {
+        String input = null;
+        String output = null;
+        ProcessingOptions options = new ProcessingOptions();
+        boolean watch = false;
+        List<String> includes = new ArrayList<>();
+        List<String> excludes = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--input", "-i" -> input = value(args, ++i, arg);
+                    case "--output", "-o" -> output = value(args, ++i, arg);
+                    case "--format" -> options.setOutputFormat(OutputFormat.fromName(value(args, ++i, arg)));
+                    case "--auftragsinfo" -> options.setUseAuftragsinfo(true);
+                    case "--detect-layout" -> options.setDetectLayout(true);
+                    case "--parser" -> options.setParserName(DocumentParsers.byName(value(args, ++i, arg)).getName());
+                    case "--recursive" -> options.setRecursive(true);
+                    case "--include" -> includes.add(value(args, ++i, arg));
+                    case "--exclude" -> excludes.add(value(args, ++i, arg));
+                    case "--modified-since" -> options.setModifiedSince(parseInstant(value(args, ++i, arg)));
+                    case "--zip" -> options.setReadArchives(true);
+                    case "--append" -> options.setAppend(true);
+                    case "--dedup" -> options.setDeduplicate(true);
+                    case "--dedup-index" -> options.setDedupIndexPath(value(args, ++i, arg));
+                    case "--watch" -> watch = true;
+                    case "--debounce" -> options.setWatchDebounceMillis(Long.parseLong(value(args, ++i, arg)));
+                    case "--roll-daily" -> options.setRollDaily(true);
+                    case "--parallel" -> options.setParallelLoading(true);
+                    case "--parser-threads" -> options.setParserThreads(Integer.parseInt(value(args, ++i, arg)));
+                    case "--schedule" -> options.setScheduling(parseScheduling(value(args, ++i, arg)));
+                    case "--cost-model" -> options.setCostModelPath(value(args, ++i, arg));
+                    case "--profile-allocations" -> options.setProfileAllocations(true);
+                    case "--resume" -> options.setResume(true);
+                    case "--checkpoint-every" -> options.setCheckpointInterval(Integer.parseInt(value(args, ++i, arg)));
+                    case "--max-rows" -> options.setMaxRowsPerShard(Integer.parseInt(value(args, ++i, arg)));
+                    case "--shard-target" -> options.setShardTarget(
+                            ProcessingOptions.ShardTarget.valueOf(upper(value(args, ++i, arg))));
+                    case "--shard-by" -> options.setShardKey(
+                            ProcessingOptions.ShardKey.valueOf(upper(value(args, ++i, arg))));
+                    case "--help", "-h" -> {
+                        System.out.println(USAGE);
+                        return 0;
+                    }
+                    default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+                }
+            }
+            options.setIncludeGlobs(includes);
+            options.setExcludeGlobs(excludes);
+            if (input == null || output == null) {
+                throw new IllegalArgumentException("--input and --output are required");
+            }
+            if (watch && !FolderWatcher.supportsFormat(options.getOutputFormat())) {
+                throw new IllegalArgumentException("--watch requires --format csv or tsv");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("[ERROR] " + e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        PdfToExcelController controller = new PdfToExcelController();
+        // Ctrl+C cancels the run; wait briefly so the final checkpoint reaches the journal.
+        CountDownLatch finished = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (finished.getCount() > 0) {
+                controller.cancel();
+                try {
+                    finished.await(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+        try {
+            if (!watch) {
+                return controller.process(input, output, options, progress -> { }, System.out::println) ? 0 : 1;
+            }
+            controller.watch(input, output, options, progress -> { }, System.out::println);
+            return 0;
+        } catch (IOException e) {
+            System.err.println("[ERROR] " + e.getMessage());
+            return 1;
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    // Accepts a plain date (start of that day, local time) or an ISO-8601 instant.
+    private static Instant parseInstant(String value) {
+        try {
+            return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } catch (DateTimeParseException e) {
+            try {
+                return Instant.parse(value);
+            } catch (DateTimeParseException e2) {
+                throw new IllegalArgumentException("Invalid date: " + value);
+            }
+        }
+    }
+
+    private static ProcessingOptions.Scheduling parseScheduling(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "source" -> ProcessingOptions.Scheduling.SOURCE_ORDER;
+            case "largest-first" -> ProcessingOptions.Scheduling.LARGEST_FIRST;
+            default -> throw new IllegalArgumentException("Invalid schedule: " + value);
+        };
+    }
+
+    private static String upper(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,209 @@
+package com.msv.pte.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Heap bytes allocated per pipeline stage, measured with the per-thread allocation counter of
+ * {@code com.sun.management.ThreadMXBean}. Opt-in, see {@link ProcessingOptions#isProfileAllocations()}.
+ * <p>
+ * A stage is measured on the thread that runs it, for the duration of {@link #measure}.
+ * Stages nest per thread: when a stage runs inside another (e.g. a page range stolen by a worker
+ * that is extracting a PDF of its own), its bytes are counted for the inner stage only, so every
+ * allocated byte is counted once. Virtual threads have no allocation counter; stages run on them
+ * are counted as unmeasured. The disabled profile does nothing and costs nothing.
+ * <p>
+ * The allocation counter is a JVM-wide setting. If it was off, the first open profile switches it
+ * on and the last one to be {@linkplain #close() closed} switches it off again.
+ */
+final class AllocationProfile {
+
+    /**
+     * Body of a measured stage.
+     *
+     * @param <T> Result of the stage.
+     * @param <E> Checked exception the stage may throw.
+     */
+    interface Stage<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private static final AllocationProfile DISABLED = new AllocationProfile(null);
+
+    // Open measuring profiles and whether they switched the counter on; guarded by AllocationProfile.class.
+    private static int openProfiles;
+    private static boolean counterSwitchedOn;
+
+    private record Totals(LongAdder bytes, LongAdder runs, LongAdder unmeasured) {
+        Totals() {
+            this(new LongAdder(), new LongAdder(), new LongAdder());
+        }
+    }
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final Map<String, Totals> stages = new ConcurrentHashMap<>();
+    private final ThreadLocal<ActiveScope> current = new ThreadLocal<>();
+    private boolean closed;
+
+    private AllocationProfile(com.sun.management.ThreadMXBean threads) {
+        this.threads = threads;
+    }
+
+    /** @return A profile that measures nothing. */
+    static AllocationProfile disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates a measuring profile and switches on the allocation counter if necessary.
+     * The profile must be {@linkplain #close() closed} after the run.
+     *
+     * @return The profile, or null if the JVM has no per-thread allocation counter.
+     */
+    static synchronized AllocationProfile create() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean threads) || !threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (openProfiles++ == 0 && !threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            counterSwitchedOn = true;
+        }
+        return new AllocationProfile(threads);
+    }
+
+    /**
+     * Ends the profile. The last open profile restores the allocation counter to its setting before
+     * the first one was created. No stage may be measured afterwards; the report stays available.
+     */
+    void close() {
+        if (threads == null) {
+            return;
+        }
+        synchronized (AllocationProfile.class) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (--openProfiles == 0 && counterSwitchedOn) {
+                threads.setThreadAllocatedMemoryEnabled(false);
+                counterSwitchedOn = false;
+            }
+        }
+    }
+
+    boolean isEnabled() {
+        return threads != null;
+    }
+
+    /**
+     * Runs a stage on the current thread and adds the bytes it allocates to the stage.
+     *
+     * @param stage Stage name, e.g. {@code "extract"} or {@code "parse confirmation"}.
+     * @param body  The stage.
+     * @return The result of the stage.
+     * @throws E if the stage throws it.
+     */
+    <T, E extends Exception> T measure(String stage, Stage<T, E> body) throws E {
+        if (threads == null) {
+            return body.run();
+        }
+        ActiveScope scope = new ActiveScope(stage, current.get(), threads.getCurrentThreadAllocatedBytes());
+        current.set(scope);
+        try {
+            return body.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Formats the report of the run.
+     *
+     * @param pages Pages of the run.
+     * @param rows  Rows of the run.
+     * @return Log lines: the total and one line per stage in pipeline order, bytes per page and per row.
+     */
+    List<String> report(long pages, long rows) {
+        List<String> lines = new ArrayList<>();
+        long total = 0;
+        for (Totals totals : stages.values()) {
+            total += totals.bytes().sum();
+        }
+        lines.add("[INFO] Allocations: " + megabytes(total) + " in total, " + perUnit(total, pages) + "/page, "
+                + perUnit(total, rows) + "/row.");
+        List<String> names = new ArrayList<>(stages.keySet());
+        names.sort(Comparator.comparingInt(AllocationProfile::stageOrder).thenComparing(Comparator.naturalOrder()));
+        for (String name : names) {
+            Totals totals = stages.get(name);
+            long bytes = totals.bytes().sum();
+            long unmeasured = totals.unmeasured().sum();
+            String line = String.format(Locale.ROOT, "[INFO]   %-28s %10s %10s/page %10s/row", name,
+                    megabytes(bytes), perUnit(bytes, pages), perUnit(bytes, rows));
+            if (unmeasured > 0) {
+                line += " (" + unmeasured + " of " + totals.runs().sum() + " runs on virtual threads, not measured)";
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    // Stages of the pipeline in the order the report lists them; parser stages start with "parse".
+    private static int stageOrder(String stage) {
+        return switch (stage.split(" ", 2)[0]) {
+            case "read" -> 0;
+            case "extract" -> 1;
+            case "select" -> 2;
+            case "parse" -> 3;
+            case "collect" -> 4;
+            case "export" -> 5;
+            default -> 6;
+        };
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MB", bytes / 1e6);
+    }
+
+    private static String perUnit(long bytes, long units) {
+        return units > 0 ? String.format(Locale.ROOT, "%.1f KB", bytes / 1e3 / units) : "-";
+    }
+
+    // Measurement of one stage run; closing it adds the allocated bytes to the stage.
+    private final class ActiveScope {
+        private final String stage;
+        private final ActiveScope outer;
+        private final long startBytes;
+        // Bytes of scopes nested in this one on the same thread; they are counted there.
+        private long nestedBytes;
+
+        ActiveScope(String stage, ActiveScope outer, long startBytes) {
+            this.stage = stage;
+            this.outer = outer;
+            this.startBytes = startBytes;
+        }
+
+        void close() {
+            long endBytes = threads.getCurrentThreadAllocatedBytes();
+            current.set(outer);
+            Totals totals = stages.computeIfAbsent(stage, name -> new Totals());
+            totals.runs().increment();
+            if (startBytes < 0 || endBytes < 0) {
+                totals.unmeasured().increment();
+                return;
+            }
+            long allocated = endBytes - startBytes;
+            totals.bytes().add(allocated - nestedBytes);
+            if (outer != null) {
+                outer.nestedBytes += allocated;
+            }
+        }
+    }
+}
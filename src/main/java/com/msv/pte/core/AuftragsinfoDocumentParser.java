@@ -0,0 +1,32 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.secondapproach.SecondApproachRefinedProcessor;
+
+/**
+ * Parses Auftragsinfo lists with {@link SecondApproachRefinedProcessor}.
+ */
+final class AuftragsinfoDocumentParser implements DocumentParser {
+
+    @Override
+    public String getName() {
+        return "auftragsinfo";
+    }
+
+    @Override
+    public void parse(String pdfText, RowSink sink) {
+        SecondApproachRefinedProcessor.parseText(pdfText, (contract, model, ab, date) ->
+                sink.accept(toDataRow(contract, model, ab, date)));
+    }
+
+    static DataRow toDataRow(String contract, String model, String ab, String date) {
+        DataRow row = new DataRow();
+        row.setOrderNumber(contract);
+        row.setModel(model);
+        row.setConfirmationNumber(ab);
+        row.setDesiredDate(date);
+        row.setHighlightModel(false);
+        row.setHighlightDate(false);
+        return row;
+    }
+}
@@ -0,0 +1,21 @@
+package com.msv.pte.core;
+
+import com.msv.pte.parser.SecondApproachRefinedParser;
+
+/**
+ * Parses Auftragsinfo lists with {@link SecondApproachRefinedParser}, which reads every line on
+ * its own: the models before the last date of a line get that date.
+ */
+final class AuftragsinfoLineDocumentParser implements DocumentParser {
+
+    @Override
+    public String getName() {
+        return "auftragsinfo-lines";
+    }
+
+    @Override
+    public void parse(String pdfText, RowSink sink) {
+        SecondApproachRefinedParser.parse(pdfText, (contract, model, ab, date) ->
+                sink.accept(AuftragsinfoDocumentParser.toDataRow(contract, model, ab, date)));
+    }
+}
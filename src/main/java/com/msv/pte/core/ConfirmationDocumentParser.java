@@ -0,0 +1,38 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.parser.ConfirmationExtractor;
+import com.msv.pte.parser.DesiredDateProcessor;
+import com.msv.pte.parser.ModelEntry;
+
+/**
+ * Parses order confirmations: one row per model of each position, with the order and
+ * confirmation number of the document and the position's desired date.
+ * <p>
+ * All fields are extracted in one pass over the text by {@link ConfirmationExtractor}.
+ */
+final class ConfirmationDocumentParser implements DocumentParser {
+
+    @Override
+    public String getName() {
+        return "confirmation";
+    }
+
+    @Override
+    public void parse(String pdfText, RowSink sink) {
+        ConfirmationExtractor.Result result = ConfirmationExtractor.extract(pdfText);
+        for (ConfirmationExtractor.Position position : result.positions()) {
+            String finalDate = DesiredDateProcessor.transformDate(position.desiredDate());
+            for (ModelEntry model : position.models()) {
+                DataRow row = new DataRow();
+                row.setOrderNumber(result.orderNumber());
+                row.setModel(model.modelName());
+                row.setConfirmationNumber(result.confirmationNumber());
+                row.setDesiredDate(finalDate);
+                row.setHighlightModel(model.red());
+                row.setHighlightDate(DesiredDateProcessor.isDateRed(finalDate));
+                sink.accept(row);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.msv.pte.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-file processing cost learned from earlier runs, used to schedule the most expensive PDFs first.
+ * <p>
+ * A PDF that was measured before with the same size is estimated with its measured time; any other
+ * PDF with its size times the average time per byte of all measurements. The model is stored as
+ * text, one {@code <nanos>\t<size>\t<source URI>} line per PDF.
+ */
+public class CostModel {
+
+    // Entries kept when saving; newer measurements win.
+    private static final int MAX_ENTRIES = 100_000;
+
+    private record Measurement(long size, long nanos) {
+    }
+
+    private final Path path;
+    private final Map<String, Measurement> loaded = new ConcurrentHashMap<>();
+    private final Map<String, Measurement> measured = new ConcurrentHashMap<>();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+
+    private CostModel(Path path) {
+        this.path = path;
+    }
+
+    /** @return A model that only uses file sizes and is not persisted. */
+    public static CostModel inMemory() {
+        return new CostModel(null);
+    }
+
+    /**
+     * Loads a stored model; a missing file yields an empty model that is created on {@link #save()}.
+     *
+     * @param path Model file.
+     * @return The loaded model.
+     * @throws IOException if the file exists but cannot be read.
+     */
+    public static CostModel open(Path path) throws IOException {
+        CostModel model = new CostModel(path);
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t", 3);
+                    if (fields.length != 3) {
+                        continue;
+                    }
+                    try {
+                        Measurement measurement = new Measurement(Long.parseLong(fields[1]), Long.parseLong(fields[0]));
+                        model.loaded.put(fields[2], measurement);
+                        model.totalNanos.add(measurement.nanos());
+                        model.totalBytes.add(measurement.size());
+                    } catch (NumberFormatException e) {
+                        // skip damaged line
+                    }
+                }
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Estimates the processing time of a PDF. Only the ordering of estimates is meaningful.
+     *
+     * @param sourceId URI of the PDF.
+     * @param size     Current file size in bytes.
+     * @return Estimated cost in nanoseconds.
+     */
+    public long estimate(String sourceId, long size) {
+        Measurement known = measured.get(sourceId);
+        if (known == null) {
+            known = loaded.get(sourceId);
+        }
+        if (known != null && known.size() == size) {
+            return known.nanos();
+        }
+        long bytes = totalBytes.sum();
+        double nanosPerByte = bytes > 0 ? totalNanos.sum() / (double) bytes : 1.0;
+        return (long) (size * nanosPerByte);
+    }
+
+    /**
+     * Records the measured processing time of a PDF; safe to call from several threads.
+     */
+    public void record(String sourceId, long size, long nanos) {
+        measured.put(sourceId, new Measurement(size, nanos));
+        totalNanos.add(nanos);
+        totalBytes.add(size);
+    }
+
+    /**
+     * Writes the model back to its file (no-op for an in-memory model).
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void save() throws IOException {
+        if (path == null) {
+            return;
+        }
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                int written = 0;
+                for (Map.Entry<String, Measurement> entry : measured.entrySet()) {
+                    write(writer, entry.getKey(), entry.getValue());
+                    written++;
+                }
+                for (Map.Entry<String, Measurement> entry : loaded.entrySet()) {
+                    if (written >= MAX_ENTRIES) {
+                        break;
+                    }
+                    if (!measured.containsKey(entry.getKey())) {
+                        write(writer, entry.getKey(), entry.getValue());
+                        written++;
+                    }
+                }
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void write(BufferedWriter writer, String sourceId, Measurement measurement) throws IOException {
+        writer.write(measurement.nanos() + "\t" + measurement.size() + "\t" + sourceId + "\n");
+    }
+}
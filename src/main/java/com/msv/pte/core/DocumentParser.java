@@ -0,0 +1,27 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+
+/**
+ * Strategy that turns the text of one PDF into data rows. Implementations are stateless and
+ * may be called from several threads at once; they are registered in {@link DocumentParsers}.
+ */
+public interface DocumentParser {
+
+    /** Receives the rows of a document in document order. */
+    @FunctionalInterface
+    interface RowSink {
+        void accept(DataRow row);
+    }
+
+    /** @return Name used to select the parser in options and log messages. */
+    String getName();
+
+    /**
+     * Parses the text of one PDF and emits its rows.
+     *
+     * @param pdfText Text extracted from the PDF.
+     * @param sink    Receives every row as soon as it is complete.
+     */
+    void parse(String pdfText, RowSink sink);
+}
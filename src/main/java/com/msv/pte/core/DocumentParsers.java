@@ -0,0 +1,62 @@
+package com.msv.pte.core;
+
+import java.util.List;
+
+/**
+ * Registry of the available {@link DocumentParser}s. A new document layout is supported by adding
+ * its parser here; the processing pipeline only sees the {@link ParserSelector}.
+ */
+public final class DocumentParsers {
+
+    /** Order confirmations with position blocks. */
+    public static final DocumentParser CONFIRMATION = new ConfirmationDocumentParser();
+    /** Auftragsinfo lists (second approach). */
+    public static final DocumentParser AUFTRAGSINFO = new AuftragsinfoDocumentParser();
+    /** Auftragsinfo lists parsed line by line, taking the last date of each line. */
+    public static final DocumentParser AUFTRAGSINFO_LINES = new AuftragsinfoLineDocumentParser();
+
+    private static final List<DocumentParser> ALL = List.of(CONFIRMATION, AUFTRAGSINFO, AUFTRAGSINFO_LINES);
+
+    private DocumentParsers() {
+    }
+
+    /** @return All registered parsers. */
+    public static List<DocumentParser> all() {
+        return ALL;
+    }
+
+    /**
+     * @param name Name of a registered parser.
+     * @return The parser with that name.
+     * @throws IllegalArgumentException if no parser has that name.
+     */
+    public static DocumentParser byName(String name) {
+        for (DocumentParser parser : ALL) {
+            if (parser.getName().equals(name)) {
+                return parser;
+            }
+        }
+        throw new IllegalArgumentException("Unknown parser: " + name);
+    }
+
+    /**
+     * Creates the selector for a run: the parser named in the options, otherwise the approach
+     * chosen by {@link ProcessingOptions#isUseAuftragsinfo()}. With layout detection enabled the
+     * layout of each PDF decides; the configured parser handles PDFs of its own layout and unrecognized PDFs.
+     *
+     * @param options Processing options.
+     * @return The selector.
+     */
+    public static ParserSelector selectorFor(ProcessingOptions options) {
+        DocumentParser parser;
+        if (options.getParserName() != null) {
+            parser = byName(options.getParserName());
+        } else {
+            parser = options.isUseAuftragsinfo() ? AUFTRAGSINFO : CONFIRMATION;
+        }
+        if (options.isDetectLayout()) {
+            return new LayoutDetector(parser);
+        }
+        return pdfText -> parser;
+    }
+}
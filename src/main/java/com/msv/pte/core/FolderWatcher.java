@@ -0,0 +1,237 @@
+package com.msv.pte.core;
+
+import com.msv.pte.export.OutputFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Long-running watch mode: parses PDFs as soon as they land in a folder and appends
+ * their rows to the (optionally daily rolling) output.
+ * <p>
+ * A file is only picked up once its size and modification time have been stable for
+ * {@link ProcessingOptions#getWatchDebounceMillis()}, so half-copied files are never read.
+ * Files that are already in the folder when watching starts are not processed. With
+ * {@link ProcessingOptions#isRecursive()} subfolders, including ones created later, are watched too.
+ * When the file system drops events, the folder is rescanned for PDFs modified since the watch
+ * started that have not been processed in their current version.
+ * <p>
+ * Every batch is appended to the output, so watch mode is limited to the delimited formats,
+ * which append by writing only the new lines and keep the keys of the output in memory between
+ * batches. XLSX and columnar outputs would be rewritten as a
+ * whole for every batch, which makes a long-running watch quadratic in the size of the output.
+ */
+public class FolderWatcher {
+
+    private static final long POLL_MILLIS = 250;
+
+    /** Last observed state of a file that is not yet considered complete. */
+    private record Candidate(long size, long lastModified, long stableSince) {
+    }
+
+    private final Path folder;
+    private final String outputPath;
+    private final ProcessingOptions options;
+    private final ParseAllPdfsInFolder.ProgressListener progressListener;
+    private final ParseAllPdfsInFolder.LogListener logListener;
+    private final Map<Path, Candidate> pending = new LinkedHashMap<>();
+    // Modification time of every file at the time it was processed.
+    private final Map<Path, Long> processed = new HashMap<>();
+    private long startedAt;
+    private volatile WatchService watchService;
+    private volatile boolean stopped;
+
+    public FolderWatcher(String pdfFolderPath, String outputPath, ProcessingOptions options,
+                         ParseAllPdfsInFolder.ProgressListener progressListener,
+                         ParseAllPdfsInFolder.LogListener logListener) {
+        if (!supportsFormat(options.getOutputFormat())) {
+            throw new IllegalArgumentException("Watch mode requires CSV or TSV output, not " + options.getOutputFormat());
+        }
+        this.folder = Path.of(pdfFolderPath);
+        this.outputPath = outputPath;
+        this.options = options.copy();
+        this.options.setAppend(true);
+        this.progressListener = progressListener;
+        this.logListener = logListener;
+    }
+
+    /**
+     * @param format Output format.
+     * @return True if watch mode can append to outputs of the format.
+     */
+    public static boolean supportsFormat(OutputFormat format) {
+        return format == OutputFormat.CSV || format == OutputFormat.TSV;
+    }
+
+    /**
+     * Watches the folder until {@link #stop()} is called or the thread is interrupted.
+     *
+     * @throws IOException if the folder cannot be watched.
+     */
+    public void run() throws IOException {
+        if (!Files.isDirectory(folder)) {
+            logListener.onLog("[ERROR] Invalid folder: " + folder.toAbsolutePath());
+            return;
+        }
+        // Whole seconds, as some file systems store modification times no finer than that.
+        startedAt = System.currentTimeMillis() / 1000 * 1000;
+        try (WatchService service = folder.getFileSystem().newWatchService()) {
+            watchService = service;
+            if (options.isRecursive()) {
+                registerTree(folder);
+            } else {
+                register(folder);
+            }
+            logListener.onLog("[INFO] Watching folder: " + folder.toAbsolutePath());
+            while (!stopped && !Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    collectEvents(key);
+                }
+                List<File> ready = collectStableFiles(System.currentTimeMillis());
+                if (!ready.isEmpty()) {
+                    ParseAllPdfsInFolder.processPdfFiles(ready.toArray(new File[0]), currentOutputPath(),
+                            options, progressListener, logListener);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // stop() closed the service while polling
+        } finally {
+            watchService = null;
+            logListener.onLog("[INFO] Stopped watching folder: " + folder.toAbsolutePath());
+        }
+    }
+
+    /** Stops a running watcher; safe to call from any thread. */
+    public void stop() {
+        stopped = true;
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void collectEvents(WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost; fall back to looking at every PDF modified since the watch started.
+                rescanFolder();
+                continue;
+            }
+            Path file = ((Path) key.watchable()).resolve((Path) event.context());
+            if (options.isRecursive() && event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(file)) {
+                // A folder moved in as a whole brings PDFs without events of their own.
+                try {
+                    registerTree(file);
+                    addPdfs(file);
+                } catch (IOException e) {
+                    logListener.onLog("[WARN] Cannot watch folder " + file + ": " + e.getMessage());
+                }
+            } else if (isPdf(file)) {
+                pending.put(file, new Candidate(-1, -1, 0));
+            }
+        }
+        key.reset();
+    }
+
+    // Queues the PDFs modified since the watch started, except those already processed in that version.
+    private void rescanFolder() {
+        try (Stream<Path> files = Files.walk(folder, options.isRecursive() ? Integer.MAX_VALUE : 1)) {
+            files.filter(FolderWatcher::isPdf).forEach(file -> {
+                try {
+                    long lastModified = Files.getLastModifiedTime(file).toMillis();
+                    if (lastModified >= startedAt && !Long.valueOf(lastModified).equals(processed.get(file))) {
+                        pending.putIfAbsent(file, new Candidate(-1, -1, 0));
+                    }
+                } catch (IOException e) {
+                    // deleted while scanning
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            logListener.onLog("[WARN] Rescan failed: " + e.getMessage());
+        }
+    }
+
+    private void addPdfs(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory, options.isRecursive() ? Integer.MAX_VALUE : 1)) {
+            files.filter(FolderWatcher::isPdf).forEach(file -> pending.putIfAbsent(file, new Candidate(-1, -1, 0)));
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private void registerTree(Path root) throws IOException {
+        try (Stream<Path> directories = Files.walk(root)) {
+            for (Path directory : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+                register(directory);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Returns the pending files whose size and timestamp have not changed for the debounce period.
+    private List<File> collectStableFiles(long now) {
+        List<File> ready = new ArrayList<>();
+        Iterator<Map.Entry<Path, Candidate>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Candidate> entry = it.next();
+            Path file = entry.getKey();
+            Candidate previous = entry.getValue();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                it.remove(); // deleted or renamed before it became stable
+                continue;
+            }
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            if (size != previous.size() || lastModified != previous.lastModified()) {
+                entry.setValue(new Candidate(size, lastModified, now));
+            } else if (now - previous.stableSince() >= options.getWatchDebounceMillis()) {
+                ready.add(file.toFile());
+                processed.put(file, lastModified);
+                it.remove();
+            }
+        }
+        return ready;
+    }
+
+    private String currentOutputPath() {
+        return options.isRollDaily()
+                ? ParseAllPdfsInFolder.withFileSuffix(outputPath, LocalDate.now().toString())
+                : outputPath;
+    }
+
+    private static boolean isPdf(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".pdf");
+    }
+}
@@ -0,0 +1,175 @@
+package com.msv.pte.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the parser of each PDF from the layout of its first page, so a folder mixing order
+ * confirmations and Auftragsinfo lists is handled in one run.
+ * <p>
+ * Only the beginning of the text is inspected: lines up to the first page break, at most
+ * {@link #FIRST_PAGE_LINES}. An Auftragsinfo list carries an AB number on most of its lines; an
+ * order confirmation has a single AB number in its header, an order keyword ("Bestellung") and
+ * position lines starting with a three-digit position number. PDFs that show neither layout go to
+ * the configured parser. The configured parser also keeps the PDFs of its own layout, so e.g.
+ * {@code auftragsinfo-lines} is not replaced by the default Auftragsinfo parser.
+ * <p>
+ * The first page ends at the form feed that {@link PageRangeTextExtractor#newStripper()} writes
+ * after every page.
+ */
+final class LayoutDetector implements ParserSelector {
+
+    // Lines inspected when the text has no page break (e.g. a single page); more than a first page of either layout.
+    private static final int FIRST_PAGE_LINES = 60;
+    // Share of non-empty lines with an AB number from which a page is an Auftragsinfo list.
+    private static final double AB_LINE_SHARE = 0.3;
+    private static final String[] ORDER_KEYWORDS = {"bestellung", "bestelltext", "auftragsbest"};
+    private static final String INFO_KEYWORD = "auftragsinfo";
+
+    /** Layout of a document as far as the first page tells. */
+    enum Layout { CONFIRMATION, AUFTRAGSINFO, UNKNOWN }
+
+    private final DocumentParser fallback;
+    private final DocumentParser confirmationParser;
+    private final DocumentParser auftragsinfoParser;
+    private final AtomicInteger confirmations = new AtomicInteger();
+    private final AtomicInteger auftragsinfos = new AtomicInteger();
+    private final AtomicInteger undecided = new AtomicInteger();
+
+    /**
+     * @param fallback Configured parser; handles PDFs of its own layout and PDFs whose layout is not recognized.
+     */
+    LayoutDetector(DocumentParser fallback) {
+        this.fallback = fallback;
+        this.confirmationParser = layoutOf(fallback) == Layout.CONFIRMATION ? fallback : DocumentParsers.CONFIRMATION;
+        this.auftragsinfoParser = layoutOf(fallback) == Layout.AUFTRAGSINFO ? fallback : DocumentParsers.AUFTRAGSINFO;
+    }
+
+    @Override
+    public DocumentParser select(String pdfText) {
+        return switch (detect(pdfText)) {
+            case CONFIRMATION -> {
+                confirmations.incrementAndGet();
+                yield confirmationParser;
+            }
+            case AUFTRAGSINFO -> {
+                auftragsinfos.incrementAndGet();
+                yield auftragsinfoParser;
+            }
+            case UNKNOWN -> {
+                undecided.incrementAndGet();
+                yield fallback;
+            }
+        };
+    }
+
+    @Override
+    public String summary() {
+        return "Layout detection: " + confirmations.get() + " order confirmations (parsed as "
+                + confirmationParser.getName() + "), " + auftragsinfos.get() + " Auftragsinfo lists (parsed as "
+                + auftragsinfoParser.getName() + "), " + undecided.get() + " unrecognized (parsed as "
+                + fallback.getName() + ")";
+    }
+
+    // Layout a registered parser is written for.
+    private static Layout layoutOf(DocumentParser parser) {
+        if (parser == DocumentParsers.CONFIRMATION) {
+            return Layout.CONFIRMATION;
+        }
+        if (parser == DocumentParsers.AUFTRAGSINFO || parser == DocumentParsers.AUFTRAGSINFO_LINES) {
+            return Layout.AUFTRAGSINFO;
+        }
+        return Layout.UNKNOWN;
+    }
+
+    /**
+     * Classifies a document by the text features of its first page.
+     *
+     * @param pdfText Text extracted from the PDF.
+     * @return The detected layout.
+     */
+    static Layout detect(String pdfText) {
+        int nonEmptyLines = 0;
+        int abLines = 0;
+        int positionLines = 0;
+        boolean orderKeyword = false;
+        boolean infoKeyword = false;
+        int lineStart = 0;
+        int length = pdfText.length();
+        for (int line = 0; line < FIRST_PAGE_LINES && lineStart < length; line++) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && pdfText.charAt(lineEnd) != '\n' && pdfText.charAt(lineEnd) != '\f') {
+                lineEnd++;
+            }
+            int first = skipSpaces(pdfText, lineStart, lineEnd);
+            if (first < lineEnd) {
+                nonEmptyLines++;
+                if (digitsUpTo(pdfText, first, lineEnd) == first + 3) {
+                    positionLines++;
+                }
+                if (hasAbNumber(pdfText, first, lineEnd)) {
+                    abLines++;
+                }
+                for (String keyword : ORDER_KEYWORDS) {
+                    orderKeyword |= containsIgnoreCase(pdfText, first, lineEnd, keyword);
+                }
+                infoKeyword |= containsIgnoreCase(pdfText, first, lineEnd, INFO_KEYWORD);
+            }
+            if (lineEnd < length && pdfText.charAt(lineEnd) == '\f') {
+                break;
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (abLines >= 2 && abLines >= AB_LINE_SHARE * nonEmptyLines) {
+            return Layout.AUFTRAGSINFO;
+        }
+        if (positionLines > 0 && (orderKeyword || positionLines >= 2)) {
+            return Layout.CONFIRMATION;
+        }
+        if (orderKeyword) {
+            return Layout.CONFIRMATION;
+        }
+        return infoKeyword ? Layout.AUFTRAGSINFO : Layout.UNKNOWN;
+    }
+
+    private static int skipSpaces(String text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    // Returns the end of the run of digits at start; the run must be followed by a space or the line end.
+    private static int digitsUpTo(String text, int start, int end) {
+        int position = start;
+        while (position < end && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+            position++;
+        }
+        return position == end || Character.isWhitespace(text.charAt(position)) ? position : -1;
+    }
+
+    // An AB number is a whitespace-separated token of 9 to 11 digits starting with 144 or 145.
+    private static boolean hasAbNumber(String text, int start, int end) {
+        int position = start;
+        while (position < end) {
+            position = skipSpaces(text, position, end);
+            int tokenEnd = digitsUpTo(text, position, end);
+            if (tokenEnd - position >= 9 && tokenEnd - position <= 11
+                    && (text.startsWith("144", position) || text.startsWith("145", position))) {
+                return true;
+            }
+            while (position < end && !Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsIgnoreCase(String text, int start, int end, String lowerCaseWord) {
+        for (int i = start; i + lowerCaseWord.length() <= end; i++) {
+            if (text.regionMatches(true, i, lowerCaseWord, 0, lowerCaseWord.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,135 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.PageListener;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Extracts the text of a large PDF by splitting it into page ranges that are stripped in
+ * parallel. Called from a fork/join worker (e.g. a parser thread of a parallel run) the ranges are
+ * forked into that worker's pool, where idle threads steal them; otherwise the common pool is used.
+ * <p>
+ * A {@link PDDocument} must not be shared between threads, so every leaf task loads its own
+ * document from the file content. The range texts are concatenated in page order, which yields
+ * exactly the text a single {@link #newStripper()} run over the whole document produces.
+ */
+final class PageRangeTextExtractor {
+
+    // Documents with more pages are split.
+    private static final int SPLIT_PAGE_THRESHOLD = 200;
+    // Ranges are not split below this size; loading the document again must pay off.
+    private static final int MIN_PAGES_PER_TASK = 50;
+
+    private PageRangeTextExtractor() {
+    }
+
+    /**
+     * Creates the text stripper used for all extraction. Every page ends with a form feed
+     * followed by the usual line separator, so {@link LayoutDetector} can find the end of the first
+     * page while the parsers still see the same lines; a trailing form feed is whitespace to them.
+     *
+     * @return A new stripper.
+     * @throws IOException if PDFBox cannot initialize the stripper.
+     */
+    static PDFTextStripper newStripper() throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setPageEnd("\f" + stripper.getLineSeparator());
+        return stripper;
+    }
+
+    /**
+     * @param pageCount Number of pages of the document.
+     * @return True if the document is large enough and more than one core is available.
+     */
+    static boolean shouldSplit(int pageCount) {
+        return pageCount > SPLIT_PAGE_THRESHOLD && currentPool().getParallelism() > 1;
+    }
+
+    /**
+     * Extracts the text of all pages.
+     *
+     * @param pdfBytes     Content of the PDF file.
+     * @param pageCount    Number of pages of the document.
+     * @param pageListener Receives each range once it is extracted; called from the pool threads.
+     * @param allocations  Receives the allocations of each range on the thread that extracts it.
+     * @return The text of the whole document.
+     * @throws IOException if a page range cannot be read.
+     */
+    static String extractText(byte[] pdfBytes, int pageCount, PageListener pageListener,
+                              AllocationProfile allocations) throws IOException {
+        ForkJoinPool pool = currentPool();
+        int parallelism = pool.getParallelism();
+        int pagesPerTask = Math.max(MIN_PAGES_PER_TASK, (pageCount + 2 * parallelism - 1) / (2 * parallelism));
+        RangeTask task = new RangeTask(pdfBytes, pageCount, pageListener, allocations, 1, pageCount, pagesPerTask);
+        try {
+            return ForkJoinTask.inForkJoinPool() ? task.invoke() : pool.invoke(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ForkJoinPool currentPool() {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        return pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    private static final class RangeTask extends RecursiveTask<String> {
+        private final byte[] pdfBytes;
+        private final int pageCount;
+        private final PageListener pageListener;
+        private final AllocationProfile allocations;
+        private final int startPage;
+        private final int endPage;
+        private final int pagesPerTask;
+
+        RangeTask(byte[] pdfBytes, int pageCount, PageListener pageListener, AllocationProfile allocations,
+                  int startPage, int endPage, int pagesPerTask) {
+            this.pdfBytes = pdfBytes;
+            this.pageCount = pageCount;
+            this.pageListener = pageListener;
+            this.allocations = allocations;
+            this.startPage = startPage;
+            this.endPage = endPage;
+            this.pagesPerTask = pagesPerTask;
+        }
+
+        @Override
+        protected String compute() {
+            if (endPage - startPage + 1 <= pagesPerTask) {
+                return strip();
+            }
+            int middle = (startPage + endPage) >>> 1;
+            RangeTask first = new RangeTask(pdfBytes, pageCount, pageListener, allocations, startPage, middle,
+                    pagesPerTask);
+            RangeTask second = new RangeTask(pdfBytes, pageCount, pageListener, allocations, middle + 1, endPage,
+                    pagesPerTask);
+            first.fork();
+            String secondText = second.compute();
+            return first.join() + secondText;
+        }
+
+        private String strip() {
+            // A range stolen by another thread is measured there; on the extracting thread it nests.
+            try {
+                return allocations.measure("extract", () -> {
+                    try (PDDocument document = PDDocument.load(pdfBytes)) {
+                        PDFTextStripper stripper = newStripper();
+                        stripper.setStartPage(startPage);
+                        stripper.setEndPage(endPage);
+                        String text = stripper.getText(document);
+                        pageListener.onPagesDone(endPage - startPage + 1, pageCount);
+                        return text;
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
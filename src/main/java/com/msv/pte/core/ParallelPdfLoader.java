@@ -0,0 +1,235 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.core.ParseAllPdfsInFolder.PDFParsingService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+/**
+ * Loads and parses the PDFs of a source concurrently.
+ * <p>
+ * Reading a file is blocking I/O and runs on a virtual thread per file, so slow (network) storage
+ * does not tie up platform threads. Text stripping and parsing are CPU-bound and run on a
+ * work-stealing pool of platform threads; page ranges of very large PDFs are forked into the same
+ * pool, so idle parser threads help with a straggler. At most {@code 4 x parserThreads} files are in
+ * flight, which bounds the memory held by file contents and results that are not yet consumed.
+ * <p>
+ * Results are handed out as they complete. Each carries its index in the source, so the caller can
+ * restore the source order. With {@link ProcessingOptions.Scheduling#LARGEST_FIRST} the whole source is
+ * discovered first and the PDFs are started in descending order of their {@link CostModel} estimate.
+ * <p>
+ * The stage gauges of the {@link PipelineMetrics} follow every PDF from reading to hand-out, and the
+ * {@link ProgressTracker} is credited by the parser threads as pages are extracted.
+ */
+class ParallelPdfLoader implements AutoCloseable {
+
+    /** Outcome for one PDF of the source; {@code rows} is null if the file could not be read. */
+    record LoadedPdf(int index, Path file, boolean skipped, long lastModified, List<DataRow> rows) {
+    }
+
+    /** File content read on the I/O side, waiting for a parser thread. */
+    private record FileContent(byte[] bytes, long lastModified) {
+    }
+
+    private record Task(int index, Path file, String sourceId, long size) {
+    }
+
+    // Signals that the total is known.
+    private static final CompletableFuture<LoadedPdf> END = CompletableFuture.completedFuture(null);
+
+    private final PdfSource source;
+    private final Predicate<Path> skip;
+    private final ParserSelector parsers;
+    private final ProcessingOptions.Scheduling scheduling;
+    private final CostModel costModel;
+    private final PipelineMetrics metrics;
+    private final ProgressTracker progressTracker;
+    private final PDFParsingService pdfParser;
+    private final ExecutorService ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService cpuExecutor;
+    private final Semaphore inFlight;
+    private final BlockingQueue<CompletableFuture<LoadedPdf>> completed = new LinkedBlockingQueue<>();
+    private final Thread feeder;
+    // Number of PDFs in the source, -1 until discovery is complete; handedOut is only used by the consumer.
+    private volatile int total = -1;
+    private int handedOut;
+
+    private ParallelPdfLoader(PdfSource source, Predicate<Path> skip, ParserSelector parsers,
+                              ProcessingOptions options, CostModel costModel, PipelineMetrics metrics,
+                              ProgressTracker progressTracker) {
+        this.source = source;
+        this.skip = skip;
+        this.parsers = parsers;
+        this.scheduling = options.getScheduling();
+        this.costModel = costModel;
+        this.metrics = metrics;
+        this.progressTracker = progressTracker;
+        this.pdfParser = new PDFParsingService(metrics);
+        this.cpuExecutor = Executors.newWorkStealingPool(options.getParserThreads());
+        this.inFlight = new Semaphore(options.getParserThreads() * 4);
+        this.feeder = Thread.ofVirtual().name("pdf-loader").unstarted(this::feed);
+    }
+
+    /**
+     * Starts loading the PDFs of the source.
+     *
+     * @param source          PDFs to load.
+     * @param skip            PDFs that are passed through without being read (e.g. already journaled).
+     * @param parsers         Chooses the parser for the text of each PDF; called concurrently.
+     * @param options         Parser thread count and scheduling.
+     * @param costModel       Cost estimates for scheduling; receives the measured cost of every PDF.
+     * @param metrics         Receives pages, bytes and stage gauges.
+     * @param progressTracker Receives the planned and the completed work.
+     * @return The running loader.
+     */
+    static ParallelPdfLoader start(PdfSource source, Predicate<Path> skip, ParserSelector parsers,
+                                   ProcessingOptions options, CostModel costModel, PipelineMetrics metrics,
+                                   ProgressTracker progressTracker) {
+        ParallelPdfLoader loader = new ParallelPdfLoader(source, skip, parsers, options, costModel, metrics,
+                progressTracker);
+        loader.feeder.start();
+        return loader;
+    }
+
+    /**
+     * Returns the next completed PDF, blocking until one is available.
+     *
+     * @return The next result, or null once all PDFs of the source have been handed out.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    LoadedPdf next() throws InterruptedException {
+        while (total < 0 || handedOut < total) {
+            CompletableFuture<LoadedPdf> future = completed.take();
+            if (future == END) {
+                continue; // total is known now
+            }
+            handedOut++;
+            try {
+                LoadedPdf loaded = future.get();
+                if (!loaded.skipped()) {
+                    metrics.waitingForCollector().decrementAndGet();
+                    inFlight.release();
+                }
+                return loaded;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return null;
+    }
+
+    private void feed() {
+        try {
+            int index = 0;
+            List<CompletableFuture<Task>> pending = new ArrayList<>();
+            Path pdfFile;
+            while ((pdfFile = source.next()) != null) {
+                Path file = pdfFile;
+                int fileIndex = index++;
+                if (skip.test(file)) {
+                    progressTracker.plan(0).finish();
+                    completed.put(CompletableFuture.completedFuture(new LoadedPdf(fileIndex, file, true, 0, null)));
+                } else if (scheduling == ProcessingOptions.Scheduling.LARGEST_FIRST) {
+                    pending.add(CompletableFuture.supplyAsync(() -> describe(fileIndex, file), ioExecutor));
+                } else {
+                    submit(describe(fileIndex, file));
+                }
+            }
+            if (!pending.isEmpty()) {
+                List<Task> tasks = new ArrayList<>(pending.size());
+                for (CompletableFuture<Task> task : pending) {
+                    tasks.add(task.join());
+                }
+                tasks.sort(Comparator.comparingLong((Task task) -> costModel.estimate(task.sourceId(), task.size()))
+                        .reversed());
+                for (Task task : tasks) {
+                    submit(task);
+                }
+            }
+            total = index;
+            completed.put(END);
+        } catch (InterruptedException e) {
+            // closed while waiting for the source or for free capacity
+        }
+    }
+
+    private static Task describe(int index, Path file) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            size = 0;
+        }
+        return new Task(index, file, file.toUri().toString(), size);
+    }
+
+    // Starts reading and parsing one PDF once an in-flight slot is free.
+    private void submit(Task task) throws InterruptedException {
+        inFlight.acquire();
+        ProgressTracker.FileProgress progress = progressTracker.plan(task.size());
+        CompletableFuture
+                .supplyAsync(() -> read(task.file()), ioExecutor)
+                .thenApplyAsync(content -> parse(task, content, progress), cpuExecutor)
+                .whenComplete((loaded, error) -> completed.add(error == null
+                        ? CompletableFuture.completedFuture(loaded)
+                        : CompletableFuture.failedFuture(error)));
+    }
+
+    private FileContent read(Path file) {
+        metrics.reading().incrementAndGet();
+        long lastModified = ParseAllPdfsInFolder.lastModified(file);
+        try {
+            byte[] bytes = metrics.allocations().measure("read", () -> Files.readAllBytes(file));
+            metrics.addBytes(bytes.length);
+            return new FileContent(bytes, lastModified);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new FileContent(null, lastModified);
+        } finally {
+            metrics.reading().decrementAndGet();
+            metrics.waitingForParser().incrementAndGet();
+        }
+    }
+
+    private LoadedPdf parse(Task task, FileContent content, ProgressTracker.FileProgress progress) {
+        metrics.waitingForParser().decrementAndGet();
+        metrics.parsing().incrementAndGet();
+        try {
+            long start = System.nanoTime();
+            String text = content.bytes() != null ? pdfParser.extractText(content.bytes(), progress) : null;
+            List<DataRow> rows = text != null ? ParseAllPdfsInFolder.parseText(parsers, text, metrics.allocations()) : null;
+            if (rows != null) {
+                costModel.record(task.sourceId(), content.bytes().length, System.nanoTime() - start);
+            }
+            return new LoadedPdf(task.index(), task.file(), false, content.lastModified(), rows);
+        } finally {
+            progress.finish();
+            metrics.parsing().decrementAndGet();
+            metrics.waitingForCollector().incrementAndGet();
+        }
+    }
+
+    /** Stops loading; PDFs still in flight are discarded. */
+    @Override
+    public void close() {
+        feeder.interrupt();
+        ioExecutor.shutdownNow();
+        cpuExecutor.shutdownNow();
+    }
+}
@@ -1,24 +1,38 @@
 package com.msv.pte.core;
 
-import com.msv.pte.parser.ConfrmationNumberProcessor;
-import com.msv.pte.parser.OrderNumberProcessor;
-import com.msv.pte.parser.PositionNumberProcessor;
-import com.msv.pte.parser.DesiredDateProcessor;
-import com.msv.pte.parser.ModelEntry;
-import com.msv.pte.secondapproach.SecondApproachRefinedProcessor;
+import com.msv.pte.export.RowExporter;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 
 /**
- * Orchestrates PDF processing and Excel export.
+ * Orchestrates PDF processing and export (Excel or one of the other {@link com.msv.pte.export.OutputFormat}s).
  */
 public class ParseAllPdfsInFolder {
 
@@ -32,6 +46,11 @@ public class ParseAllPdfsInFolder {
         void onLog(String message);
     }
 
+    /** Listener for the pages of a PDF whose text has been extracted; may be called from several threads. */
+    public interface PageListener {
+        void onPagesDone(int pages, int pageCount);
+    }
+
     /**
      * Processes a folder of PDF files and exports extracted data to an Excel file.
      * Updates progress and log messages via provided listeners.
@@ -44,69 +63,408 @@ public class ParseAllPdfsInFolder {
      */
     public static void processPdfFolder(String pdfFolderPath, String excelOutputPath, boolean useAuftragsinfo,
                                         ProgressListener progressListener, LogListener logListener) {
-        File pdfFolder = new File(pdfFolderPath);
-        if (!pdfFolder.isDirectory()) {
-            logListener.onLog("[ERROR] Invalid folder: " + pdfFolder.getAbsolutePath());
+        ProcessingOptions options = new ProcessingOptions();
+        options.setUseAuftragsinfo(useAuftragsinfo);
+        processPdfFolder(pdfFolderPath, excelOutputPath, options, progressListener, logListener);
+    }
+
+    /**
+     * Processes a folder of PDF files using the given options.
+     *
+     * @param pdfFolderPath    Path to the folder with PDF files.
+     * @param excelOutputPath  Output Excel file path.
+     * @param options          Processing approach and export settings.
+     * @param progressListener Listener for progress (0-100).
+     * @param logListener      Listener for log messages.
+     */
+    public static void processPdfFolder(String pdfFolderPath, String excelOutputPath, ProcessingOptions options,
+                                        ProgressListener progressListener, LogListener logListener) {
+        processPdfFolder(pdfFolderPath, excelOutputPath, options, new ProcessingJob(), progressListener, logListener);
+    }
+
+    /**
+     * Processes a folder of PDF files as a cancellable job.
+     *
+     * @param pdfFolderPath    Path to the folder with PDF files.
+     * @param excelOutputPath  Output Excel file path.
+     * @param options          Processing approach and export settings.
+     * @param job              Handle used to cancel the run.
+     * @param progressListener Listener for progress (0-100).
+     * @param logListener      Listener for log messages.
+     */
+    public static void processPdfFolder(String pdfFolderPath, String excelOutputPath, ProcessingOptions options,
+                                        ProcessingJob job, ProgressListener progressListener, LogListener logListener) {
+        Path pdfFolder = Path.of(pdfFolderPath);
+        if (!Files.isDirectory(pdfFolder)) {
+            job.fail();
+            logListener.onLog("[ERROR] Invalid folder: " + pdfFolder.toAbsolutePath());
             return;
         }
-        File[] pdfFiles = pdfFolder.listFiles((dir, name) -> name.toLowerCase().endsWith(".pdf"));
-        if (pdfFiles == null || pdfFiles.length == 0) {
-            logListener.onLog("[WARN] No PDF files found in the folder.");
+        try (PdfFileScanner scanner = PdfFileScanner.start(pdfFolder, options, logListener)) {
+            processPdfSource(scanner, excelOutputPath, options, job, progressListener, logListener);
+        }
+    }
+
+    /**
+     * Processes the given PDF files and exports the extracted rows.
+     *
+     * @param pdfFiles         PDF files to process, in output order.
+     * @param excelOutputPath  Output file path.
+     * @param options          Processing approach and export settings.
+     * @param progressListener Listener for progress (0-100).
+     * @param logListener      Listener for log messages.
+     */
+    public static void processPdfFiles(File[] pdfFiles, String excelOutputPath, ProcessingOptions options,
+                                       ProgressListener progressListener, LogListener logListener) {
+        List<Path> paths = new ArrayList<>(pdfFiles.length);
+        for (File pdfFile : pdfFiles) {
+            paths.add(pdfFile.toPath());
+        }
+        processPdfSource(PdfSource.of(paths), excelOutputPath, options, progressListener, logListener);
+    }
+
+    /**
+     * Processes PDFs as they are delivered by the source and exports the extracted rows.
+     * Progress is relative to the PDFs discovered so far and stays below 100 until discovery is complete.
+     *
+     * @param source           Supplier of the PDFs, in output order.
+     * @param excelOutputPath  Output file path.
+     * @param options          Processing approach and export settings.
+     * @param progressListener Listener for progress (0-100).
+     * @param logListener      Listener for log messages.
+     */
+    public static void processPdfSource(PdfSource source, String excelOutputPath, ProcessingOptions options,
+                                        ProgressListener progressListener, LogListener logListener) {
+        processPdfSource(source, excelOutputPath, options, new ProcessingJob(), progressListener, logListener);
+    }
+
+    /**
+     * Processes PDFs from the source as a cancellable, resumable job.
+     * Every processed PDF is recorded in a {@link ProcessingJournal} next to the output. On cancellation
+     * the journal is checkpointed and nothing is exported; a later run with
+     * {@link ProcessingOptions#isResume()} skips the journaled PDFs that are unchanged and reuses their rows.
+     *
+     * @param source           Supplier of the PDFs, in output order.
+     * @param excelOutputPath  Output file path.
+     * @param options          Processing approach and export settings.
+     * @param job              Handle used to cancel the run.
+     * @param progressListener Listener for progress (0-100).
+     * @param logListener      Listener for log messages.
+     */
+    public static void processPdfSource(PdfSource source, String excelOutputPath, ProcessingOptions options,
+                                        ProcessingJob job, ProgressListener progressListener, LogListener logListener) {
+        ProcessingJournal journal;
+        try {
+            journal = ProcessingJournal.open(excelOutputPath, options.isResume());
+        } catch (IOException e) {
+            job.fail();
+            logListener.onLog("[ERROR] Cannot open checkpoint journal: " + e.getMessage());
             return;
         }
-        List<DataRow> dataRows = new ArrayList<>();
-        PDFParsingService pdfParser = new PDFParsingService();
-        int totalFiles = pdfFiles.length;
-
-        for (int i = 0; i < totalFiles; i++) {
-            File pdfFile = pdfFiles[i];
-            logListener.onLog("[INFO] Processing PDF: " + pdfFile.getName());
-            String pdfText = pdfParser.extractText(pdfFile);
-            if (pdfText == null) continue;
-
-            if (useAuftragsinfo) {
-                List<SecondApproachRefinedProcessor.ResultRow> resultRows = SecondApproachRefinedProcessor.parseText(pdfText);
-                for (SecondApproachRefinedProcessor.ResultRow rr : resultRows) {
-                    DataRow dr = new DataRow();
-                    dr.setOrderNumber(rr.vertragsNummer);
-                    dr.setModel(rr.modellBezeichnung);
-                    dr.setConfirmationNumber(rr.abNummer);
-                    dr.setDesiredDate(rr.datum);
-                    dr.setHighlightModel(false);
-                    dr.setHighlightDate(false);
-                    dataRows.add(dr);
-                }
+        try {
+            processJournaled(source, excelOutputPath, options, job, journal, progressListener, logListener);
+        } finally {
+            job.getMetrics().allocations().close();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logListener.onLog("[WARN] Cannot close checkpoint journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void processJournaled(PdfSource source, String excelOutputPath, ProcessingOptions options,
+                                         ProcessingJob job, ProcessingJournal journal,
+                                         ProgressListener progressListener, LogListener logListener) {
+        PipelineMetrics metrics = job.getMetrics();
+        if (options.isProfileAllocations()) {
+            AllocationProfile profile = AllocationProfile.create();
+            if (profile != null) {
+                metrics.setAllocations(profile);
             } else {
-                dataRows.addAll(processConfirmationApproach(pdfText));
+                logListener.onLog("[WARN] Allocation profiling is not supported by this JVM.");
+            }
+        }
+        AllocationProfile allocations = metrics.allocations();
+        PDFParsingService pdfParser = new PDFParsingService(metrics);
+        boolean deduplicate = options.isDeduplicate() || options.getDedupIndexPath() != null;
+        RowDeduplicator deduplicator = deduplicate ? new RowDeduplicator() : null;
+        int processedFiles = 0;
+        ProgressTracker progressTracker = new ProgressTracker(source, progressListener);
+
+        int restored = journal.getRestoredEntries().size();
+        if (restored > 0) {
+            logListener.onLog("[INFO] Resuming: " + restored + " PDFs restored from checkpoint.");
+        }
+
+        ParserSelector parsers = DocumentParsers.selectorFor(options);
+        // A journaled PDF that was modified afterwards is processed again.
+        Predicate<Path> alreadyProcessed = pdf -> journal.isProcessed(pdf.toUri().toString(), lastModified(pdf));
+        CostModel costModel = openCostModel(options, logListener);
+        // Parallel loading hands out PDFs in completion order; rows are added in source order afterwards.
+        List<ParallelPdfLoader.LoadedPdf> parsedFiles = new ArrayList<>();
+        try (ParallelPdfLoader loader = options.isParallelLoading()
+                ? ParallelPdfLoader.start(source, alreadyProcessed, parsers, options, costModel, metrics, progressTracker)
+                : null) {
+            int sinceCheckpoint = 0;
+            int sourceIndex = 0;
+            while (!job.isCancelled()) {
+                ParallelPdfLoader.LoadedPdf loaded;
+                if (loader != null) {
+                    loaded = loader.next();
+                    if (loaded == null) {
+                        break;
+                    }
+                    if (!loaded.skipped()) {
+                        logListener.onLog("[INFO] Processing PDF: " + source.describe(loaded.file()));
+                    }
+                } else {
+                    Path pdfFile = source.next();
+                    if (pdfFile == null) {
+                        break;
+                    }
+                    loaded = loadSequentially(sourceIndex++, pdfFile, alreadyProcessed, pdfParser, parsers, costModel,
+                            metrics, progressTracker, source, logListener);
+                }
+                processedFiles++;
+                metrics.fileDone(loaded.rows() != null ? loaded.rows().size() : 0);
+                metrics.setDiscovered(source.getDiscoveredCount(), source.isDiscoveryComplete());
+                if (loaded.skipped()) {
+                    logListener.onLog("[INFO] Already processed: " + source.describe(loaded.file()));
+                    // Reuse the journaled rows at the PDF's place in the source order.
+                    ProcessingJournal.FileEntry entry = journal.getRestoredEntry(loaded.file().toUri().toString());
+                    parsedFiles.add(new ParallelPdfLoader.LoadedPdf(loaded.index(), loaded.file(), true,
+                            entry.lastModified(), entry.rows()));
+                } else if (loaded.rows() != null) {
+                    parsedFiles.add(loaded);
+                    // Unreadable PDFs are not journaled so that a resumed run tries them again.
+                    journal.record(loaded.file().toUri().toString(), loaded.lastModified(), loaded.rows());
+                    if (++sinceCheckpoint >= options.getCheckpointInterval()) {
+                        journal.checkpoint();
+                        sinceCheckpoint = 0;
+                    }
+                }
+            }
+            progressTracker.reportNow();
+            if (job.isCancelled()) {
+                journal.checkpoint();
+                logListener.onLog("[WARN] Processing cancelled after " + processedFiles
+                        + " PDFs. Start again with resume enabled to continue.");
+                return;
+            }
+            logListener.onLog(runSummary(metrics.snapshot()));
+            String selections = parsers.summary();
+            if (selections != null) {
+                logListener.onLog("[INFO] " + selections + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail();
+            logListener.onLog("[WARN] Processing interrupted.");
+            return;
+        } catch (IOException e) {
+            job.fail();
+            logListener.onLog("[ERROR] Cannot write checkpoint journal: " + e.getMessage());
+            return;
+        } finally {
+            try {
+                costModel.save();
+            } catch (IOException e) {
+                logListener.onLog("[WARN] Cannot write cost model: " + e.getMessage());
+            }
+        }
+        List<DataRow> dataRows = allocations.measure("collect", () -> collectRows(parsedFiles, deduplicator));
+        if (processedFiles == 0) {
+            logListener.onLog("[WARN] No PDF files found in the folder.");
+            deleteJournal(journal, logListener);
+            return;
+        }
+
+        PersistentRowIndex rowIndex = null;
+        if (deduplicator != null) {
+            logListener.onLog("[INFO] Removed " + deduplicator.getDuplicateCount() + " duplicate rows.");
+        }
+        if (options.getDedupIndexPath() != null) {
+            try {
+                rowIndex = PersistentRowIndex.open(Path.of(options.getDedupIndexPath()));
+            } catch (IOException e) {
+                job.fail();
+                logListener.onLog("[ERROR] Cannot read dedup index: " + e.getMessage());
+                return;
+            }
+            int before = dataRows.size();
+            dataRows = rowIndex.filterUnseen(dataRows);
+            logListener.onLog("[INFO] Skipped " + (before - dataRows.size()) + " rows exported by earlier runs.");
+        }
+        List<String> outputFiles;
+        List<DataRow> exportedRows = dataRows;
+        try {
+            outputFiles = allocations.measure("export",
+                    () -> exportRows(exportedRows, excelOutputPath, options, logListener));
+        } catch (IOException e) {
+            job.fail();
+            logListener.onLog("[ERROR] Export failed: " + e.getMessage());
+            return;
+        }
+        if (rowIndex != null) {
+            for (DataRow row : dataRows) {
+                rowIndex.add(RowKey.of(row));
+            }
+            try {
+                rowIndex.save();
+            } catch (IOException e) {
+                job.fail();
+                logListener.onLog("[ERROR] Cannot write dedup index: " + e.getMessage());
+            }
+        }
+        deleteJournal(journal, logListener);
+        if (allocations.isEnabled()) {
+            PipelineMetrics.Snapshot snapshot = metrics.snapshot();
+            for (String line : allocations.report(snapshot.pages(), snapshot.rows())) {
+                logListener.onLog(line);
             }
-            int progress = (int) (((i + 1) / (double) totalFiles) * 100);
-            progressListener.onProgress(progress);
         }
-        ExcelGenerationService.exportToExcel(dataRows, excelOutputPath);
         progressListener.onProgress(100);
-        logListener.onLog("[INFO] Processing complete. Output file: " + excelOutputPath);
+        if (outputFiles.size() == 1) {
+            logListener.onLog("[INFO] Processing complete. Output file: " + outputFiles.get(0));
+        } else {
+            logListener.onLog("[INFO] Processing complete. " + outputFiles.size() + " output files:");
+            for (String outputFile : outputFiles) {
+                logListener.onLog("[INFO]   " + outputFile);
+            }
+        }
+    }
+
+    private static ParallelPdfLoader.LoadedPdf loadSequentially(int index, Path pdfFile, Predicate<Path> skip,
+                                                                PDFParsingService pdfParser,
+                                                                ParserSelector parsers,
+                                                                CostModel costModel, PipelineMetrics metrics,
+                                                                ProgressTracker progressTracker,
+                                                                PdfSource source, LogListener logListener) {
+        if (skip.test(pdfFile)) {
+            progressTracker.plan(0).finish();
+            return new ParallelPdfLoader.LoadedPdf(index, pdfFile, true, 0, null);
+        }
+        logListener.onLog("[INFO] Processing PDF: " + source.describe(pdfFile));
+        long size;
+        try {
+            size = Files.size(pdfFile);
+        } catch (IOException e) {
+            size = 0;
+        }
+        ProgressTracker.FileProgress progress = progressTracker.plan(size);
+        metrics.parsing().incrementAndGet();
+        try {
+            long start = System.nanoTime();
+            String pdfText = pdfParser.extractText(pdfFile, progress);
+            if (pdfText == null) {
+                return new ParallelPdfLoader.LoadedPdf(index, pdfFile, false, 0, null);
+            }
+            List<DataRow> rows = parseText(parsers, pdfText, metrics.allocations());
+            metrics.addBytes(size);
+            costModel.record(pdfFile.toUri().toString(), size, System.nanoTime() - start);
+            return new ParallelPdfLoader.LoadedPdf(index, pdfFile, false, lastModified(pdfFile), rows);
+        } finally {
+            progress.finish();
+            metrics.parsing().decrementAndGet();
+        }
+    }
+
+    /**
+     * Parses the text of a PDF with the parser selected for it. With allocation profiling the
+     * selection and the parser call are measured separately, the latter per parser.
+     *
+     * @param parsers     Chooses the parser.
+     * @param pdfText     Text extracted from the PDF.
+     * @param allocations Allocation accounting of the run.
+     * @return The rows of the PDF in document order.
+     */
+    static List<DataRow> parseText(ParserSelector parsers, String pdfText, AllocationProfile allocations) {
+        if (!allocations.isEnabled()) {
+            return parsers.parse(pdfText);
+        }
+        DocumentParser parser = allocations.measure("select", () -> parsers.select(pdfText));
+        return allocations.measure("parse " + parser.getName(), () -> {
+            List<DataRow> rows = new ArrayList<>();
+            parser.parse(pdfText, rows::add);
+            return rows;
+        });
     }
 
-    private static List<DataRow> processConfirmationApproach(String pdfText) {
-        List<DataRow> rows = new ArrayList<>();
-        String orderNumber = OrderNumberProcessor.findOrderNumber(pdfText);
-        String confirmationNumber = ConfrmationNumberProcessor.findConfirmationNumber(pdfText);
-        List<PositionNumberProcessor.PositionData> posDataList = PositionNumberProcessor.extractPositionsModelsAndDates(pdfText);
+    private static String runSummary(PipelineMetrics.Snapshot snapshot) {
+        return String.format(Locale.ROOT,
+                "[INFO] Run summary: %d PDFs, %d pages, %d rows, %.1f MB in %.1f s (%.1f PDFs/s, %.1f pages/s, %.1f rows/s).",
+                snapshot.files(), snapshot.pages(), snapshot.rows(), snapshot.bytes() / 1e6,
+                snapshot.elapsedNanos() / 1e9, snapshot.filesPerSecond(), snapshot.pagesPerSecond(),
+                snapshot.rowsPerSecond());
+    }
 
-        for (PositionNumberProcessor.PositionData posData : posDataList) {
-            String finalDate = DesiredDateProcessor.transformDate(posData.getDesiredDate());
-            for (ModelEntry model : posData.getModels()) {
-                DataRow row = new DataRow();
-                row.setOrderNumber(orderNumber);
-                row.setModel(model.modelName());
-                row.setConfirmationNumber(confirmationNumber);
-                row.setDesiredDate(finalDate);
-                row.setHighlightModel(model.red());
-                row.setHighlightDate(DesiredDateProcessor.isDateRed(finalDate));
-                rows.add(row);
+    private static CostModel openCostModel(ProcessingOptions options, LogListener logListener) {
+        if (options.getCostModelPath() == null) {
+            return CostModel.inMemory();
+        }
+        try {
+            return CostModel.open(Path.of(options.getCostModelPath()));
+        } catch (IOException e) {
+            logListener.onLog("[WARN] Cannot read cost model, using file sizes: " + e.getMessage());
+            return CostModel.inMemory();
+        }
+    }
+
+    // Brings the rows of all PDFs into source order, without duplicates if a deduplicator is given.
+    private static List<DataRow> collectRows(List<ParallelPdfLoader.LoadedPdf> parsedFiles,
+                                             RowDeduplicator deduplicator) {
+        parsedFiles.sort(Comparator.comparingInt(ParallelPdfLoader.LoadedPdf::index));
+        List<DataRow> dataRows = new ArrayList<>();
+        for (ParallelPdfLoader.LoadedPdf parsed : parsedFiles) {
+            if (deduplicator != null) {
+                deduplicator.addFileRows(parsed.lastModified(), parsed.rows());
+            } else {
+                dataRows.addAll(parsed.rows());
             }
         }
-        return rows;
+        return deduplicator != null ? deduplicator.getRows() : dataRows;
+    }
+
+    // Writes or appends the rows and returns the written files.
+    private static List<String> exportRows(List<DataRow> dataRows, String excelOutputPath, ProcessingOptions options,
+                                           LogListener logListener) throws IOException {
+        RowExporter exporter = RowExporter.forFormat(options.getOutputFormat());
+        if (!options.isAppend()) {
+            return exporter.export(dataRows, excelOutputPath, options);
+        }
+        int appended = exporter.append(dataRows, excelOutputPath, options);
+        logListener.onLog("[INFO] Append mode: " + appended + " new rows added, "
+                + (dataRows.size() - appended) + " already present.");
+        return List.of(excelOutputPath);
+    }
+
+    private static void deleteJournal(ProcessingJournal journal, LogListener logListener) {
+        try {
+            journal.delete();
+        } catch (IOException e) {
+            logListener.onLog("[WARN] Cannot remove checkpoint journal: " + e.getMessage());
+        }
+    }
+
+    static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Inserts {@code "_" + suffix} before the file extension, e.g. {@code out.xlsx -> out_AL.xlsx}.
+     */
+    static String withFileSuffix(String path, String suffix) {
+        int dot = path.lastIndexOf('.');
+        int separator = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        if (dot <= separator) {
+            return path + "_" + suffix;
+        }
+        return path.substring(0, dot) + "_" + suffix + path.substring(dot);
     }
 
     /** Represents a generic row of data for Excel export. */
@@ -133,63 +491,426 @@ public class ParseAllPdfsInFolder {
 
     /** Service for extracting text from PDF files using PDFBox. */
     public static class PDFParsingService {
+
+        private static final PageListener NO_PAGE_LISTENER = (pages, pageCount) -> { };
+
+        private final PipelineMetrics metrics;
+
+        public PDFParsingService() {
+            this(null);
+        }
+
+        /**
+         * @param metrics Receives the page count of every extracted PDF; may be null.
+         */
+        public PDFParsingService(PipelineMetrics metrics) {
+            this.metrics = metrics;
+        }
+
         public String extractText(File pdfFile) {
-            try (PDDocument document = PDDocument.load(pdfFile)) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                return stripper.getText(document);
+            return extractText(pdfFile.toPath());
+        }
+
+        /**
+         * Extracts the text of a PDF. Files on the default file system are opened by PDFBox directly;
+         * other paths (e.g. entries of a mounted ZIP archive) are streamed into PDFBox.
+         * Large documents are split into page ranges that are extracted in parallel.
+         *
+         * @param pdfFile PDF to read.
+         * @return The extracted text, or null if the file cannot be read.
+         */
+        public String extractText(Path pdfFile) {
+            return extractText(pdfFile, NO_PAGE_LISTENER);
+        }
+
+        /**
+         * Extracts the text of a PDF and reports the extracted pages.
+         *
+         * @param pdfFile      PDF to read.
+         * @param pageListener Receives the pages as they are extracted.
+         * @return The extracted text, or null if the file cannot be read.
+         */
+        public String extractText(Path pdfFile, PageListener pageListener) {
+            try {
+                return allocations().measure("extract", () -> extract(pdfFile, pageListener));
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+
+        private String extract(Path pdfFile, PageListener pageListener) throws IOException {
+            int pageCount;
+            try (PDDocument document = load(pdfFile)) {
+                pageCount = document.getNumberOfPages();
+                countPages(pageCount);
+                if (!PageRangeTextExtractor.shouldSplit(pageCount)) {
+                    String text = PageRangeTextExtractor.newStripper().getText(document);
+                    pageListener.onPagesDone(pageCount, pageCount);
+                    return text;
+                }
+            }
+            return PageRangeTextExtractor.extractText(Files.readAllBytes(pdfFile), pageCount, pageListener,
+                    allocations());
+        }
+
+        /**
+         * Extracts the text of a PDF that has already been read into memory.
+         *
+         * @param pdfBytes Content of the PDF file.
+         * @return The extracted text, or null if the content is not a readable PDF.
+         */
+        public String extractText(byte[] pdfBytes) {
+            return extractText(pdfBytes, NO_PAGE_LISTENER);
+        }
+
+        /**
+         * Extracts the text of a PDF that has already been read into memory and reports the extracted pages.
+         *
+         * @param pdfBytes     Content of the PDF file.
+         * @param pageListener Receives the pages as they are extracted.
+         * @return The extracted text, or null if the content is not a readable PDF.
+         */
+        public String extractText(byte[] pdfBytes, PageListener pageListener) {
+            try {
+                return allocations().measure("extract", () -> extract(pdfBytes, pageListener));
             } catch (IOException e) {
                 e.printStackTrace();
                 return null;
             }
         }
+
+        private String extract(byte[] pdfBytes, PageListener pageListener) throws IOException {
+            int pageCount;
+            try (PDDocument document = PDDocument.load(pdfBytes)) {
+                pageCount = document.getNumberOfPages();
+                countPages(pageCount);
+                if (!PageRangeTextExtractor.shouldSplit(pageCount)) {
+                    String text = PageRangeTextExtractor.newStripper().getText(document);
+                    pageListener.onPagesDone(pageCount, pageCount);
+                    return text;
+                }
+            }
+            return PageRangeTextExtractor.extractText(pdfBytes, pageCount, pageListener, allocations());
+        }
+
+        private void countPages(int pageCount) {
+            if (metrics != null) {
+                metrics.addPages(pageCount);
+            }
+        }
+
+        private AllocationProfile allocations() {
+            return metrics != null ? metrics.allocations() : AllocationProfile.disabled();
+        }
+
+        private static PDDocument load(Path pdfFile) throws IOException {
+            if (pdfFile.getFileSystem() == FileSystems.getDefault()) {
+                return PDDocument.load(pdfFile.toFile());
+            }
+            try (InputStream in = Files.newInputStream(pdfFile)) {
+                return PDDocument.load(in);
+            }
+        }
     }
 
     /** Service for exporting data rows to an Excel file using Apache POI. */
     public static class ExcelGenerationService {
-        public static void exportToExcel(List<DataRow> dataRows, String excelOutputPath) {
-            try (Workbook workbook = new XSSFWorkbook()) {
-                Sheet sheet = workbook.createSheet("Extracted Data");
-                createHeaderRow(sheet, workbook);
-                int rowIndex = 1;
+
+        private static final String SHEET_NAME = "Extracted Data";
+        private static final String UNKNOWN_KEY = "unbekannt";
+        // Rows kept in memory per sheet before SXSSF flushes them to its temp file.
+        private static final int ROW_WINDOW = 200;
+
+        /** A slice of rows that ends up on its own sheet. */
+        private record Shard(String sheetName, String fileSuffix, List<DataRow> rows) {
+        }
+
+        public static List<String> exportToExcel(List<DataRow> dataRows, String excelOutputPath) throws IOException {
+            return exportToExcel(dataRows, excelOutputPath, new ProcessingOptions());
+        }
+
+        /**
+         * Exports data rows, rolling over to a new sheet or workbook whenever a shard reaches
+         * {@link ProcessingOptions#getMaxRowsPerShard()} rows or the split key changes.
+         * Each workbook is written by its own writer thread. Without rows a single workbook with a
+         * header-only sheet is written.
+         *
+         * @param dataRows        Rows to export.
+         * @param excelOutputPath Output Excel file path; additional workbooks get a suffix.
+         * @param options         Sharding settings.
+         * @return Paths of all written workbook files.
+         * @throws IOException if a workbook cannot be written.
+         */
+        public static List<String> exportToExcel(List<DataRow> dataRows, String excelOutputPath,
+                                                 ProcessingOptions options) throws IOException {
+            List<List<Shard>> workbooks = planWorkbooks(dataRows, options);
+            List<String> paths = new ArrayList<>();
+            for (List<Shard> shards : workbooks) {
+                paths.add(workbooks.size() == 1 ? excelOutputPath
+                        : withFileSuffix(excelOutputPath, shards.get(0).fileSuffix()));
+            }
+            if (workbooks.size() == 1) {
+                writeWorkbook(workbooks.get(0), paths.get(0));
+                return paths;
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.min(options.getWriterThreads(), workbooks.size()));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < workbooks.size(); i++) {
+                    List<Shard> shards = workbooks.get(i);
+                    String path = paths.get(i);
+                    futures.add(executor.submit(() -> {
+                        writeWorkbook(shards, path);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException("Cannot write workbook: " + e.getCause(), e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+            return paths;
+        }
+
+        /**
+         * Groups rows by split key and cuts every group into shards of at most
+         * {@code maxRowsPerShard} rows. Returns the shards per workbook.
+         */
+        private static List<List<Shard>> planWorkbooks(List<DataRow> dataRows, ProcessingOptions options) {
+            Map<String, List<DataRow>> groups = new LinkedHashMap<>();
+            if (options.getShardKey() == ProcessingOptions.ShardKey.NONE) {
+                groups.put("", dataRows);
+            } else {
                 for (DataRow row : dataRows) {
-                    Row excelRow = sheet.createRow(rowIndex++);
-                    createCell(excelRow, 0, row.getOrderNumber(), workbook, false);
-                    createCell(excelRow, 1, row.getModel(), workbook, row.isHighlightModel());
-                    createCell(excelRow, 2, row.getConfirmationNumber(), workbook, false);
-                    createCell(excelRow, 3, row.getDesiredDate(), workbook, row.isHighlightDate());
+                    groups.computeIfAbsent(shardKeyOf(row, options.getShardKey()), k -> new ArrayList<>()).add(row);
                 }
-                for (int col = 0; col < 4; col++) {
-                    sheet.autoSizeColumn(col);
+            }
+            if (groups.isEmpty()) {
+                // No rows: still one header-only sheet, a workbook without sheets cannot be opened.
+                groups.put("", dataRows);
+            }
+            int maxRows = options.getMaxRowsPerShard();
+            List<Shard> shards = new ArrayList<>();
+            for (Map.Entry<String, List<DataRow>> group : groups.entrySet()) {
+                String key = group.getKey();
+                List<DataRow> rows = group.getValue();
+                int parts = Math.max(1, (rows.size() + maxRows - 1) / maxRows);
+                for (int part = 1; part <= parts; part++) {
+                    List<DataRow> slice = rows.subList((part - 1) * maxRows, Math.min(rows.size(), part * maxRows));
+                    shards.add(new Shard(sheetName(key, part), fileSuffix(key, part, parts), slice));
+                }
+            }
+            List<List<Shard>> workbooks = new ArrayList<>();
+            if (options.getShardTarget() == ProcessingOptions.ShardTarget.SHEET) {
+                workbooks.add(shards);
+            } else {
+                for (Shard shard : shards) {
+                    workbooks.add(List.of(shard));
+                }
+            }
+            return workbooks;
+        }
+
+        private static String shardKeyOf(DataRow row, ProcessingOptions.ShardKey shardKey) {
+            if (shardKey == ProcessingOptions.ShardKey.BRANCH) {
+                String order = row.getOrderNumber();
+                return order != null && order.length() >= 2 ? order.substring(0, 2).toUpperCase() : UNKNOWN_KEY;
+            }
+            String date = row.getDesiredDate();
+            return date != null && date.length() == 4 && date.chars().allMatch(Character::isDigit)
+                    ? "KW" + date : UNKNOWN_KEY;
+        }
+
+        private static String sheetName(String key, int part) {
+            String base = key.isEmpty() ? SHEET_NAME : key;
+            return WorkbookUtil.createSafeSheetName(part == 1 ? base : base + " (" + part + ")");
+        }
+
+        private static String fileSuffix(String key, int part, int parts) {
+            String suffix = key.replaceAll("[^A-Za-z0-9-]", "_");
+            if (parts > 1 || suffix.isEmpty()) {
+                suffix = (suffix.isEmpty() ? "" : suffix + "_") + String.format("%03d", part);
+            }
+            return suffix;
+        }
+
+        /**
+         * Appends rows to an existing workbook, skipping rows whose four columns are already
+         * present on any sheet. New rows are streamed after the last row of the last sheet and
+         * roll over to a new sheet at {@link ProcessingOptions#getMaxRowsPerShard()} rows.
+         * Key-based sharding is not applied in append mode. If the workbook does not exist yet,
+         * a regular export is performed.
+         * <p>
+         * An XLSX file cannot be extended in place: the whole workbook is loaded, its keys are read
+         * and the file is rewritten, so an append costs as much as reading and writing the existing
+         * output. Large, growing outputs are better kept as CSV.
+         *
+         * @param dataRows        Newly parsed rows.
+         * @param excelOutputPath Existing workbook.
+         * @param options         Sharding settings (row limit only).
+         * @return Number of rows added.
+         * @throws IOException if the workbook cannot be read or written.
+         */
+        public static int appendToExcel(List<DataRow> dataRows, String excelOutputPath,
+                                        ProcessingOptions options) throws IOException {
+            Path path = Path.of(excelOutputPath);
+            if (!Files.exists(path)) {
+                List<DataRow> newRows = RowKey.filterNew(dataRows, new HashSet<>());
+                exportToExcel(newRows, excelOutputPath, options);
+                return newRows.size();
+            }
+            XSSFWorkbook existing;
+            try (InputStream in = Files.newInputStream(path)) {
+                existing = new XSSFWorkbook(in);
+            }
+            try {
+                List<DataRow> newRows = RowKey.filterNew(dataRows, readKeys(existing));
+                if (!newRows.isEmpty()) {
+                    appendRows(existing, newRows, path, options);
+                }
+                return newRows.size();
+            } finally {
+                existing.close();
+            }
+        }
+
+        // Streams the rows after the last row of the last sheet and replaces the file atomically.
+        private static void appendRows(XSSFWorkbook existing, List<DataRow> newRows, Path path,
+                                       ProcessingOptions options) throws IOException {
+            int lastSheetIndex = existing.getNumberOfSheets() - 1;
+            // An empty last sheet has no header yet: getLastRowNum() is -1 and getPhysicalNumberOfRows() is 0.
+            boolean needsHeader = lastSheetIndex < 0 || existing.getSheetAt(lastSheetIndex).getPhysicalNumberOfRows() == 0;
+            int rowIndex = needsHeader ? 1 : existing.getSheetAt(lastSheetIndex).getLastRowNum() + 1;
+            try (SXSSFWorkbook workbook = new SXSSFWorkbook(existing, ROW_WINDOW)) {
+                CellStyle plainStyle = createCenteredCellStyle(workbook);
+                CellStyle redStyle = createRedCellStyle(workbook);
+                Sheet sheet = lastSheetIndex < 0 ? workbook.createSheet(SHEET_NAME) : workbook.getSheetAt(lastSheetIndex);
+                int[] widths = new int[RowExporter.HEADERS.size()];
+                if (needsHeader) {
+                    widths = createHeaderRow(sheet, plainStyle);
+                } else {
+                    readWidths(sheet, widths);
+                }
+                for (DataRow row : newRows) {
+                    if (rowIndex > options.getMaxRowsPerShard()) {
+                        applyWidths(sheet, widths);
+                        sheet = workbook.createSheet(nextSheetName(workbook));
+                        widths = createHeaderRow(sheet, plainStyle);
+                        rowIndex = 1;
+                    }
+                    writeRow(sheet.createRow(rowIndex++), row, plainStyle, redStyle, widths);
+                }
+                applyWidths(sheet, widths);
+
+                Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+                try {
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        workbook.write(out);
+                    }
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+
+        private static Set<RowKey> readKeys(Workbook workbook) {
+            DataFormatter formatter = new DataFormatter();
+            Set<RowKey> keys = new HashSet<>();
+            for (Sheet sheet : workbook) {
+                for (Row row : sheet) {
+                    if (row.getRowNum() == 0) {
+                        continue;
+                    }
+                    keys.add(new RowKey(formatter.formatCellValue(row.getCell(0)), formatter.formatCellValue(row.getCell(1)),
+                            formatter.formatCellValue(row.getCell(2)), formatter.formatCellValue(row.getCell(3))));
                 }
-                try (FileOutputStream fos = new FileOutputStream(excelOutputPath)) {
+            }
+            return keys;
+        }
+
+        private static String nextSheetName(Workbook workbook) {
+            int part = workbook.getNumberOfSheets() + 1;
+            while (workbook.getSheet(sheetName("", part)) != null) {
+                part++;
+            }
+            return sheetName("", part);
+        }
+
+        private static void readWidths(Sheet sheet, int[] widths) {
+            for (int col = 0; col < widths.length; col++) {
+                widths[col] = Math.max(0, sheet.getColumnWidth(col) / 256 - 2);
+            }
+        }
+
+        private static void applyWidths(Sheet sheet, int[] widths) {
+            for (int col = 0; col < widths.length; col++) {
+                sheet.setColumnWidth(col, Math.min(255, widths[col] + 2) * 256);
+            }
+        }
+
+        private static void writeWorkbook(List<Shard> shards, String path) throws IOException {
+            try (SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW)) {
+                CellStyle plainStyle = createCenteredCellStyle(workbook);
+                CellStyle redStyle = createRedCellStyle(workbook);
+
+                for (Shard shard : shards) {
+                    Sheet sheet = workbook.createSheet(shard.sheetName());
+                    int[] widths = createHeaderRow(sheet, plainStyle);
+                    int rowIndex = 1;
+                    for (DataRow row : shard.rows()) {
+                        writeRow(sheet.createRow(rowIndex++), row, plainStyle, redStyle, widths);
+                    }
+                    // Streaming sheets cannot be auto-sized after the fact, so the width is derived from the text length.
+                    applyWidths(sheet, widths);
+                }
+                try (FileOutputStream fos = new FileOutputStream(path)) {
                     workbook.write(fos);
                 }
-            } catch (IOException e) {
-                e.printStackTrace();
             }
         }
 
-        private static void createHeaderRow(Sheet sheet, Workbook workbook) {
+        private static int[] createHeaderRow(Sheet sheet, CellStyle headerStyle) {
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"Auftragsnummer", "Modell", "Bestätigungsnummer", "Wunschliefertermin"};
-            CellStyle headerStyle = createCenteredCellStyle(workbook);
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
+            int[] widths = new int[RowExporter.HEADERS.size()];
+            for (int i = 0; i < widths.length; i++) {
+                createCell(headerRow, i, RowExporter.HEADERS.get(i), headerStyle, widths);
             }
+            return widths;
+        }
+
+        private static void writeRow(Row excelRow, DataRow row, CellStyle plainStyle, CellStyle redStyle, int[] widths) {
+            createCell(excelRow, 0, row.getOrderNumber(), plainStyle, widths);
+            createCell(excelRow, 1, row.getModel(), row.isHighlightModel() ? redStyle : plainStyle, widths);
+            createCell(excelRow, 2, row.getConfirmationNumber(), plainStyle, widths);
+            createCell(excelRow, 3, row.getDesiredDate(), row.isHighlightDate() ? redStyle : plainStyle, widths);
         }
 
-        private static void createCell(Row row, int colIndex, String value, Workbook workbook, boolean highlightRed) {
+        private static void createCell(Row row, int colIndex, String value, CellStyle style, int[] widths) {
             Cell cell = row.createCell(colIndex);
-            cell.setCellValue(value != null ? value : "");
-            CellStyle style = createCenteredCellStyle(workbook);
-            if (highlightRed) {
-                Font font = workbook.createFont();
-                font.setColor(IndexedColors.RED.getIndex());
-                style.setFont(font);
-            }
+            String text = value != null ? value : "";
+            cell.setCellValue(text);
             cell.setCellStyle(style);
+            widths[colIndex] = Math.max(widths[colIndex], text.length());
+        }
+
+        private static CellStyle createRedCellStyle(Workbook workbook) {
+            CellStyle style = createCenteredCellStyle(workbook);
+            Font font = workbook.createFont();
+            font.setColor(IndexedColors.RED.getIndex());
+            style.setFont(font);
+            return style;
         }
 
         private static CellStyle createCenteredCellStyle(Workbook workbook) {
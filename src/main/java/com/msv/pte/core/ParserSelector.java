@@ -0,0 +1,36 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses the {@link DocumentParser} for each PDF of a run.
+ */
+@FunctionalInterface
+public interface ParserSelector {
+
+    /**
+     * @param pdfText Text extracted from the PDF.
+     * @return The parser for this PDF.
+     */
+    DocumentParser select(String pdfText);
+
+    /** @return Statistics about the selections of the run for the log, or null if there is nothing to report. */
+    default String summary() {
+        return null;
+    }
+
+    /**
+     * Parses a PDF with the parser selected for it.
+     *
+     * @param pdfText Text extracted from the PDF.
+     * @return The rows of the PDF in document order.
+     */
+    default List<DataRow> parse(String pdfText) {
+        List<DataRow> rows = new ArrayList<>();
+        select(pdfText).parse(pdfText, rows::add);
+        return rows;
+    }
+}
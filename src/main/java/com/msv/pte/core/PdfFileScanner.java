@@ -0,0 +1,244 @@
+package com.msv.pte.core;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Discovers PDFs below a folder on a background thread using {@link Files#walkFileTree}.
+ * Matching files are handed to the pipeline through a bounded queue as soon as they are found,
+ * so processing starts while large trees are still being walked.
+ * <p>
+ * Include/exclude globs are matched against the path relative to the root folder and against
+ * the plain file name. An excluded directory is skipped with its whole subtree.
+ * <p>
+ * With {@link ProcessingOptions#isReadArchives()} ZIP archives are mounted via
+ * {@link FileSystems#newFileSystem(Path)} and their PDFs are read in place, without extraction.
+ */
+public class PdfFileScanner implements PdfSource {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    // Identity marker that ends the queue; never a real file.
+    private static final Path END = Path.of("end-of-scan");
+
+    private final Path root;
+    private final boolean recursive;
+    private final List<PathMatcher> includes = new ArrayList<>();
+    private final List<PathMatcher> excludes = new ArrayList<>();
+    private final Instant modifiedSince;
+    private final boolean readArchives;
+    // Archives stay mounted until close(), since their entries may still be queued for parsing.
+    private final List<FileSystem> archives = new CopyOnWriteArrayList<>();
+    private final Map<FileSystem, String> archivePrefixes = new ConcurrentHashMap<>();
+    private final ParseAllPdfsInFolder.LogListener logListener;
+    private final BlockingQueue<Path> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread walker;
+    private volatile int discoveredCount;
+    private volatile boolean discoveryComplete;
+    private boolean exhausted;
+
+    private PdfFileScanner(Path root, ProcessingOptions options, ParseAllPdfsInFolder.LogListener logListener) {
+        this.root = root;
+        this.recursive = options.isRecursive();
+        this.modifiedSince = options.getModifiedSince();
+        this.readArchives = options.isReadArchives();
+        this.logListener = logListener;
+        FileSystem fileSystem = root.getFileSystem();
+        for (String glob : options.getIncludeGlobs()) {
+            includes.add(fileSystem.getPathMatcher("glob:" + glob));
+        }
+        for (String glob : options.getExcludeGlobs()) {
+            excludes.add(fileSystem.getPathMatcher("glob:" + glob));
+        }
+        this.walker = new Thread(this::walk, "pdf-scanner");
+        this.walker.setDaemon(true);
+    }
+
+    /**
+     * Starts scanning the given folder.
+     *
+     * @param root        Folder to scan.
+     * @param options     Recursion and filter settings.
+     * @param logListener Listener for warnings about unreadable entries.
+     * @return The running scanner.
+     */
+    public static PdfFileScanner start(Path root, ProcessingOptions options, ParseAllPdfsInFolder.LogListener logListener) {
+        PdfFileScanner scanner = new PdfFileScanner(root, options, logListener);
+        scanner.walker.start();
+        return scanner;
+    }
+
+    @Override
+    public Path next() throws InterruptedException {
+        if (exhausted) {
+            return null;
+        }
+        Path next = queue.take();
+        if (next == END) {
+            exhausted = true;
+            return null;
+        }
+        return next;
+    }
+
+    @Override
+    public int getDiscoveredCount() {
+        return discoveredCount;
+    }
+
+    @Override
+    public boolean isDiscoveryComplete() {
+        return discoveryComplete;
+    }
+
+    @Override
+    public String describe(Path pdf) {
+        String prefix = archivePrefixes.get(pdf.getFileSystem());
+        return prefix != null ? prefix + pdf : root.relativize(pdf).toString();
+    }
+
+    /** Stops the walk and unmounts all archives; paths handed out before become unusable. */
+    @Override
+    public void close() {
+        walker.interrupt();
+        try {
+            walker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (FileSystem archive : archives) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void walk() {
+        try {
+            walkTree(root, recursive ? Integer.MAX_VALUE : 1);
+        } catch (IOException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                logListener.onLog("[ERROR] Folder scan failed: " + e.getMessage());
+            }
+        } finally {
+            discoveryComplete = true;
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void walkTree(Path treeRoot, int maxDepth) throws IOException {
+        Files.walkFileTree(treeRoot, EnumSet.noneOf(FileVisitOption.class), maxDepth, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(treeRoot) && matchesAny(excludes, treeRoot, dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (readArchives && hasExtension(file, ".zip")) {
+                    if (!matchesAny(excludes, treeRoot, file)) {
+                        walkArchive(file);
+                    }
+                } else if (accepts(treeRoot, file, attrs)) {
+                    offer(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logListener.onLog("[WARN] Cannot read " + file + ": " + exc.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Mounts a ZIP archive as a file system and walks all of its entries (including nested archives).
+     * Entries are handed out as paths inside the archive, so nothing is extracted to disk.
+     */
+    private void walkArchive(Path archive) throws IOException {
+        FileSystem zip;
+        try {
+            zip = FileSystems.newFileSystem(archive);
+        } catch (IOException | ProviderNotFoundException | UnsupportedOperationException e) {
+            logListener.onLog("[WARN] Cannot open archive " + describe(archive) + ": " + e.getMessage());
+            return;
+        }
+        archivePrefixes.put(zip, describe(archive) + "!");
+        archives.add(zip);
+        for (Path zipRoot : zip.getRootDirectories()) {
+            walkTree(zipRoot, Integer.MAX_VALUE);
+        }
+    }
+
+    private boolean accepts(Path treeRoot, Path file, BasicFileAttributes attrs) {
+        if (!hasExtension(file, ".pdf")) {
+            return false;
+        }
+        if (modifiedSince != null && attrs.lastModifiedTime().toInstant().isBefore(modifiedSince)) {
+            return false;
+        }
+        if (!includes.isEmpty() && !matchesAny(includes, treeRoot, file)) {
+            return false;
+        }
+        return !matchesAny(excludes, treeRoot, file);
+    }
+
+    private static boolean hasExtension(Path file, String extension) {
+        Path name = file.getFileName();
+        return name != null && name.toString().toLowerCase().endsWith(extension);
+    }
+
+    private boolean matchesAny(List<PathMatcher> matchers, Path treeRoot, Path path) {
+        // Matchers belong to the default file system; archive entries are matched by their string form.
+        Path relative = Path.of(treeRoot.relativize(path).toString());
+        Path name = Path.of(path.getFileName().toString());
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(relative) || matcher.matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Blocks while the pipeline is behind; an interrupt (close()) aborts the walk.
+    private void offer(Path file) throws IOException {
+        try {
+            discoveredCount++;
+            queue.put(file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Folder scan cancelled", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.msv.pte.core;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Supplies the PDFs of a run to the processing pipeline, possibly while they are still
+ * being discovered.
+ */
+public interface PdfSource extends AutoCloseable {
+
+    /**
+     * Returns the next PDF, blocking until one is available.
+     *
+     * @return The next PDF, or null once the source is exhausted.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    Path next() throws InterruptedException;
+
+    /** @return Number of PDFs discovered so far. */
+    int getDiscoveredCount();
+
+    /** @return True once no more PDFs will be discovered. */
+    boolean isDiscoveryComplete();
+
+    /** @return Name used for the PDF in log messages. */
+    default String describe(Path pdf) {
+        return pdf.getFileName().toString();
+    }
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Creates a source over a fixed list of files.
+     *
+     * @param pdfFiles Files in processing order.
+     * @return The source.
+     */
+    static PdfSource of(List<Path> pdfFiles) {
+        return new PdfSource() {
+            private int index;
+
+            @Override
+            public Path next() {
+                return index < pdfFiles.size() ? pdfFiles.get(index++) : null;
+            }
+
+            @Override
+            public int getDiscoveredCount() {
+                return pdfFiles.size();
+            }
+
+            @Override
+            public boolean isDiscoveryComplete() {
+                return true;
+            }
+        };
+    }
+}
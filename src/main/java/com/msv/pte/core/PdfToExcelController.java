@@ -1,10 +1,15 @@
 package com.msv.pte.core;
 
+import java.io.IOException;
+
 /**
  * Controller for handling PDF to Excel processing business logic.
  */
 public class PdfToExcelController {
 
+    private volatile FolderWatcher activeWatcher;
+    private volatile ProcessingJob activeJob;
+
     /**
      * Processes the PDF folder and generates an Excel file.
      *
@@ -20,4 +25,86 @@ public class PdfToExcelController {
         // Delegate processing to business logic
         ParseAllPdfsInFolder.processPdfFolder(pdfFolderPath, excelOutputPath, useAuftragsinfo, progressListener, logListener);
     }
+
+    /**
+     * Processes the PDF folder with explicit processing options.
+     *
+     * @param pdfFolderPath    Path to the folder containing PDF files.
+     * @param excelOutputPath  Path to the output Excel file.
+     * @param options          Processing approach and export settings.
+     * @param progressListener Listener for progress updates.
+     * @param logListener      Listener for log messages.
+     * @return True if the run completed, false if it failed or was cancelled.
+     */
+    public boolean process(String pdfFolderPath, String excelOutputPath, ProcessingOptions options,
+                        ParseAllPdfsInFolder.ProgressListener progressListener,
+                        ParseAllPdfsInFolder.LogListener logListener) {
+        return process(pdfFolderPath, excelOutputPath, options, new ProcessingJob(), progressListener, logListener);
+    }
+
+    /**
+     * Processes the PDF folder as the given job, so the caller can monitor its metrics.
+     *
+     * @param pdfFolderPath    Path to the folder containing PDF files.
+     * @param excelOutputPath  Path to the output Excel file.
+     * @param options          Processing approach and export settings.
+     * @param job              Job handle; cancelled by {@link #cancel()}.
+     * @param progressListener Listener for progress updates.
+     * @param logListener      Listener for log messages.
+     * @return True if the run completed, false if it failed or was cancelled.
+     */
+    public boolean process(String pdfFolderPath, String excelOutputPath, ProcessingOptions options, ProcessingJob job,
+                        ParseAllPdfsInFolder.ProgressListener progressListener,
+                        ParseAllPdfsInFolder.LogListener logListener) {
+        activeJob = job;
+        try {
+            ParseAllPdfsInFolder.processPdfFolder(pdfFolderPath, excelOutputPath, options, job, progressListener, logListener);
+            return !job.isFailed() && !job.isCancelled();
+        } finally {
+            activeJob = null;
+        }
+    }
+
+    /**
+     * Cancels the running {@link #process} call after the current PDF and stops watch mode.
+     * A cancelled run keeps its checkpoint journal and can be resumed later.
+     */
+    public void cancel() {
+        ProcessingJob job = activeJob;
+        if (job != null) {
+            job.cancel();
+        }
+        stopWatching();
+    }
+
+    /**
+     * Runs the long-running watch mode: every PDF that lands in the folder is parsed once it is
+     * stable and its rows are appended to the output. Blocks until {@link #stopWatching()} is called.
+     *
+     * @param pdfFolderPath    Folder to watch.
+     * @param outputPath       Output file the rows are appended to.
+     * @param options          Processing approach and export settings.
+     * @param progressListener Listener for progress updates.
+     * @param logListener      Listener for log messages.
+     * @throws IOException if the folder cannot be watched.
+     */
+    public void watch(String pdfFolderPath, String outputPath, ProcessingOptions options,
+                      ParseAllPdfsInFolder.ProgressListener progressListener,
+                      ParseAllPdfsInFolder.LogListener logListener) throws IOException {
+        FolderWatcher watcher = new FolderWatcher(pdfFolderPath, outputPath, options, progressListener, logListener);
+        activeWatcher = watcher;
+        try {
+            watcher.run();
+        } finally {
+            activeWatcher = null;
+        }
+    }
+
+    /** Stops a running {@link #watch} call. */
+    public void stopWatching() {
+        FolderWatcher watcher = activeWatcher;
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
 }
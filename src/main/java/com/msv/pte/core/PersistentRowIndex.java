@@ -0,0 +1,253 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cross-run index of already exported rows.
+ * <p>
+ * Each {@link RowKey} is reduced to a 64-bit hash. On disk the index is a sorted array of
+ * those hashes behind a small header, so prior outputs never have to be read again. In memory
+ * the hashes live in an open-addressing {@code long} table, giving O(1) lookups without boxing.
+ */
+public class PersistentRowIndex {
+
+    private static final int MAGIC = 0x50544958; // "PTIX"
+    private static final int HEADER_BYTES = 12;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Path path;
+    private long[] table = new long[1024];
+    private int size;
+    // 0 marks an empty slot, so a key hashing to 0 is tracked separately.
+    private boolean containsZero;
+
+    private PersistentRowIndex(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the index at the given path, or starts an empty one if the file does not exist.
+     *
+     * @param path Index file.
+     * @return The loaded index.
+     * @throws IOException if the file exists but cannot be read.
+     */
+    public static PersistentRowIndex open(Path path) throws IOException {
+        PersistentRowIndex index = new PersistentRowIndex(path);
+        if (!Files.exists(path)) {
+            return index;
+        }
+        // Read through a buffer rather than mapping the file: a mapping would keep the file
+        // locked on Windows and make the atomic replace in save() fail.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).flip();
+            if (!fill(channel, buffer, HEADER_BYTES) || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a row index: " + path);
+            }
+            long count = buffer.getLong();
+            if (count != (channel.size() - HEADER_BYTES) / Long.BYTES) {
+                throw new IOException("Truncated row index: " + path);
+            }
+            index.ensureCapacity((int) count);
+            for (long i = 0; i < count; i++) {
+                if (buffer.remaining() < Long.BYTES && !fill(channel, buffer, Long.BYTES)) {
+                    throw new IOException("Truncated row index: " + path);
+                }
+                index.addHash(buffer.getLong());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Splits off the rows that were already recorded by an earlier run.
+     *
+     * @param rows Candidate rows.
+     * @return Rows not contained in the index, in their original order.
+     */
+    public List<DataRow> filterUnseen(List<DataRow> rows) {
+        List<DataRow> unseen = new ArrayList<>(rows.size());
+        for (DataRow row : rows) {
+            if (!contains(RowKey.of(row))) {
+                unseen.add(row);
+            }
+        }
+        return unseen;
+    }
+
+    public boolean contains(RowKey key) {
+        long hash = hash(key);
+        if (hash == 0) {
+            return containsZero;
+        }
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (table[slot] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a key.
+     *
+     * @return true if the key was not yet present.
+     */
+    public boolean add(RowKey key) {
+        return addHash(hash(key));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the index as a sorted hash array. The file is replaced atomically.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void save() throws IOException {
+        long[] hashes = new long[size];
+        int n = 0;
+        if (containsZero) {
+            hashes[n++] = 0;
+        }
+        for (long hash : table) {
+            if (hash != 0) {
+                hashes[n++] = hash;
+            }
+        }
+        Arrays.sort(hashes);
+
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+                buffer.putInt(MAGIC).putLong(hashes.length);
+                for (long hash : hashes) {
+                    if (buffer.remaining() < Long.BYTES) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putLong(hash);
+                }
+                drain(channel, buffer);
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the four key fields (separated by a NUL char), finished with the
+     * MurmurHash3 avalanche step.
+     */
+    static long hash(RowKey key) {
+        long h = FNV_OFFSET;
+        h = hashField(h, key.orderNumber());
+        h = hashField(h, key.model());
+        h = hashField(h, key.confirmationNumber());
+        h = hashField(h, key.desiredDate());
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long hashField(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            h = (h ^ (c & 0xff)) * FNV_PRIME;
+            h = (h ^ (c >>> 8)) * FNV_PRIME;
+        }
+        // NUL separator (two zero bytes): XOR with zero leaves only the multiplications.
+        return h * FNV_PRIME * FNV_PRIME;
+    }
+
+    private boolean addHash(long hash) {
+        if (hash == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        ensureCapacity(size + 1);
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == hash) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = hash;
+        size++;
+        return true;
+    }
+
+    // Keeps the load factor at or below 1/2.
+    private void ensureCapacity(int expectedSize) {
+        if ((long) expectedSize * 2 <= table.length) {
+            return;
+        }
+        int capacity = table.length;
+        while ((long) expectedSize * 2 > capacity) {
+            capacity <<= 1;
+        }
+        long[] old = table;
+        table = new long[capacity];
+        int mask = capacity - 1;
+        for (long hash : old) {
+            if (hash != 0) {
+                int slot = mix(hash) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = hash;
+            }
+        }
+    }
+
+    private static int mix(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // Compacts the buffer and reads until at least 'needed' bytes are available for reading.
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
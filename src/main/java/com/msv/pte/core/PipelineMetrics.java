@@ -0,0 +1,107 @@
+package com.msv.pte.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of a running batch, updated by the pipeline threads and read by monitors
+ * (the UI dashboard, the run summary). All updates are lock-free; a {@link Snapshot} is a
+ * consistent-enough view for display, not an exact cut across all counters.
+ * <p>
+ * The stage gauges count PDFs that are currently being read, read and waiting for a parser thread,
+ * being parsed, and parsed but not yet taken over by the collecting thread.
+ */
+public class PipelineMetrics {
+
+    /** Point-in-time values of the metrics. */
+    public record Snapshot(long elapsedNanos, long files, long pages, long rows, long bytes,
+                           int discoveredFiles, boolean discoveryComplete,
+                           int reading, int waitingForParser, int parsing, int waitingForCollector) {
+
+        /** @return Files per second since the start of the run. */
+        public double filesPerSecond() {
+            return perSecond(files);
+        }
+
+        /** @return Pages per second since the start of the run. */
+        public double pagesPerSecond() {
+            return perSecond(pages);
+        }
+
+        /** @return Rows per second since the start of the run. */
+        public double rowsPerSecond() {
+            return perSecond(rows);
+        }
+
+        private double perSecond(long count) {
+            return elapsedNanos > 0 ? count * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicInteger reading = new AtomicInteger();
+    private final AtomicInteger waitingForParser = new AtomicInteger();
+    private final AtomicInteger parsing = new AtomicInteger();
+    private final AtomicInteger waitingForCollector = new AtomicInteger();
+    private volatile int discoveredFiles;
+    private volatile boolean discoveryComplete;
+    private volatile AllocationProfile allocations = AllocationProfile.disabled();
+
+    /** Counts a PDF taken over by the collecting thread (parsed, unreadable or already journaled). */
+    public void fileDone(int rowCount) {
+        files.increment();
+        rows.add(rowCount);
+    }
+
+    public void addPages(int pageCount) {
+        pages.add(pageCount);
+    }
+
+    public void addBytes(long byteCount) {
+        bytes.add(byteCount);
+    }
+
+    public void setDiscovered(int discoveredFiles, boolean discoveryComplete) {
+        this.discoveredFiles = discoveredFiles;
+        this.discoveryComplete = discoveryComplete;
+    }
+
+    /** Gauge of PDFs whose content is being read. */
+    public AtomicInteger reading() {
+        return reading;
+    }
+
+    /** Gauge of PDFs that have been read and wait for a parser thread. */
+    public AtomicInteger waitingForParser() {
+        return waitingForParser;
+    }
+
+    /** Gauge of PDFs being parsed. */
+    public AtomicInteger parsing() {
+        return parsing;
+    }
+
+    /** Gauge of parsed PDFs that wait for the collecting thread. */
+    public AtomicInteger waitingForCollector() {
+        return waitingForCollector;
+    }
+
+    /** Allocation accounting of the run; disabled unless profiling was requested. */
+    AllocationProfile allocations() {
+        return allocations;
+    }
+
+    void setAllocations(AllocationProfile allocations) {
+        this.allocations = allocations;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(System.nanoTime() - startNanos, files.sum(), pages.sum(), rows.sum(), bytes.sum(),
+                discoveredFiles, discoveryComplete,
+                reading.get(), waitingForParser.get(), parsing.get(), waitingForCollector.get());
+    }
+}
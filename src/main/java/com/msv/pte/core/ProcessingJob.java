@@ -0,0 +1,36 @@
+package com.msv.pte.core;
+
+/**
+ * Handle of a running batch. Cancellation is cooperative: the pipeline checks the flag
+ * between files, writes a final checkpoint and stops without exporting.
+ */
+public class ProcessingJob {
+
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private volatile boolean cancelled;
+    private volatile boolean failed;
+
+    /** Requests cancellation; safe to call from any thread. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Marks the batch as failed; the pipeline calls this when it stops on an error. */
+    void fail() {
+        failed = true;
+    }
+
+    /** @return True if the batch stopped on an error, e.g. an invalid folder or a failed export. */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /** @return Live throughput and queue metrics of the batch. */
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+}
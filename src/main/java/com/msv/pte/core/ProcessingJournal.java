@@ -0,0 +1,201 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only checkpoint journal of a batch run, stored next to the output as {@code <output>.journal}.
+ * <p>
+ * For every processed PDF the journal holds its rows ({@code R} lines) followed by a file
+ * marker ({@code F} line). {@link #checkpoint()} forces the journal to disk; rows written after the
+ * last complete file marker are ignored on resume. An interrupted run started again with
+ * {@link ProcessingOptions#isResume()} restores the journaled rows and skips the journaled PDFs,
+ * unless a PDF was modified after it was journaled; such a PDF is processed again.
+ * The journal is deleted once the export has succeeded.
+ */
+public class ProcessingJournal implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+    private static final String NULL = "\\N";
+
+    /** Rows restored from the journal for one processed PDF. */
+    public record FileEntry(String sourceId, long lastModified, List<DataRow> rows) {
+    }
+
+    private final Path path;
+    private final FileOutputStream stream;
+    private final BufferedWriter writer;
+    // Source id -> modification time when it was journaled; also queried by the loader threads of a parallel run.
+    private final Map<String, Long> processedSources = new ConcurrentHashMap<>();
+    // A PDF journaled twice (modified and processed again) keeps its latest entry.
+    private final Map<String, FileEntry> restoredEntries = new LinkedHashMap<>();
+
+    private ProcessingJournal(Path path, boolean resume) throws IOException {
+        this.path = path;
+        if (resume && Files.exists(path)) {
+            restore();
+        } else {
+            Files.deleteIfExists(path);
+        }
+        this.stream = new FileOutputStream(path.toFile(), true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+        if (resume) {
+            // Drop rows of a file that was only partially written before the interruption.
+            rewriteRestored();
+        }
+    }
+
+    /**
+     * Opens the journal belonging to the given output.
+     *
+     * @param outputPath Output file of the run.
+     * @param resume     True to restore an existing journal, false to start a new one.
+     * @return The opened journal.
+     * @throws IOException if the journal cannot be read or created.
+     */
+    public static ProcessingJournal open(String outputPath, boolean resume) throws IOException {
+        return new ProcessingJournal(Path.of(outputPath + SUFFIX), resume);
+    }
+
+    /** @return Rows of all PDFs completed by the interrupted run, in processing order. */
+    public List<FileEntry> getRestoredEntries() {
+        return new ArrayList<>(restoredEntries.values());
+    }
+
+    /**
+     * @param sourceId Source id of a PDF.
+     * @return The restored entry of the PDF, or null if the interrupted run did not complete it.
+     */
+    public FileEntry getRestoredEntry(String sourceId) {
+        return restoredEntries.get(sourceId);
+    }
+
+    /**
+     * @param sourceId     Source id of a PDF.
+     * @param lastModified Current modification time of the PDF (epoch millis).
+     * @return True if the PDF is journaled and has not been modified since.
+     */
+    public boolean isProcessed(String sourceId, long lastModified) {
+        Long journaled = processedSources.get(sourceId);
+        return journaled != null && journaled == lastModified;
+    }
+
+    /**
+     * Records the rows of a processed PDF. The entry becomes durable with the next {@link #checkpoint()}.
+     */
+    public void record(String sourceId, long lastModified, List<DataRow> rows) throws IOException {
+        for (DataRow row : rows) {
+            writer.write("R\t" + escape(row.getOrderNumber()) + '\t' + escape(row.getModel()) + '\t'
+                    + escape(row.getConfirmationNumber()) + '\t' + escape(row.getDesiredDate()) + '\t'
+                    + (row.isHighlightModel() ? '1' : '0') + '\t' + (row.isHighlightDate() ? '1' : '0') + '\n');
+        }
+        writer.write("F\t" + lastModified + '\t' + escape(sourceId) + '\n');
+        processedSources.put(sourceId, lastModified);
+    }
+
+    /** Flushes all recorded entries and forces them to the storage device. */
+    public void checkpoint() throws IOException {
+        writer.flush();
+        stream.getFD().sync();
+    }
+
+    /** Closes and removes the journal after a successful export. */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void restore() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<DataRow> pending = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields[0].equals("R") && fields.length == 7) {
+                    DataRow row = new DataRow();
+                    row.setOrderNumber(unescape(fields[1]));
+                    row.setModel(unescape(fields[2]));
+                    row.setConfirmationNumber(unescape(fields[3]));
+                    row.setDesiredDate(unescape(fields[4]));
+                    row.setHighlightModel(fields[5].equals("1"));
+                    row.setHighlightDate(fields[6].equals("1"));
+                    pending.add(row);
+                } else if (fields[0].equals("F") && fields.length == 3) {
+                    String sourceId = unescape(fields[2]);
+                    restoredEntries.put(sourceId, new FileEntry(sourceId, Long.parseLong(fields[1]), pending));
+                    pending = new ArrayList<>();
+                } else {
+                    break; // torn last line
+                }
+            }
+        }
+    }
+
+    private void rewriteRestored() throws IOException {
+        stream.getChannel().truncate(0);
+        processedSources.clear();
+        for (FileEntry entry : restoredEntries.values()) {
+            record(entry.sourceId(), entry.lastModified(), entry.rows());
+        }
+        checkpoint();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String value) {
+        if (value.equals(NULL)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
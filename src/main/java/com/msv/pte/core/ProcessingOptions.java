@@ -0,0 +1,181 @@
+package com.msv.pte.core;
+
+import com.msv.pte.export.OutputFormat;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Optional settings for a processing run.
+ * The defaults reproduce the classic behaviour: one workbook with one sheet.
+ * Sharding settings only apply to the XLSX format.
+ */
+public class ProcessingOptions implements Cloneable {
+
+    /** Maximum number of data rows a single Excel sheet can hold (excluding the header row). */
+    public static final int EXCEL_MAX_DATA_ROWS = 1_048_575;
+
+    /** Where a shard is written once the row limit or the split key changes. */
+    public enum ShardTarget {
+        /** Additional sheets inside the same workbook. */
+        SHEET,
+        /** Additional workbook files next to the configured output path. */
+        WORKBOOK
+    }
+
+    /** Criterion used to split rows into separate shards. */
+    public enum ShardKey {
+        NONE,
+        /** First two characters of the order number (branch code). */
+        BRANCH,
+        /** Desired delivery week (KWJJ). */
+        WEEK
+    }
+
+    /** Order in which a parallel run starts the PDFs. */
+    public enum Scheduling {
+        /** In the order the PDFs are discovered. */
+        SOURCE_ORDER,
+        /** Most expensive first according to the cost model; waits until discovery is complete. */
+        LARGEST_FIRST
+    }
+
+    private boolean useAuftragsinfo;
+    private String parserName;
+    private boolean detectLayout;
+    private OutputFormat outputFormat = OutputFormat.XLSX;
+    private boolean append;
+    private boolean deduplicate;
+    private String dedupIndexPath;
+    private int maxRowsPerShard = EXCEL_MAX_DATA_ROWS;
+    private ShardTarget shardTarget = ShardTarget.SHEET;
+    private ShardKey shardKey = ShardKey.NONE;
+    private int writerThreads = Runtime.getRuntime().availableProcessors();
+    private boolean recursive;
+    private List<String> includeGlobs = List.of();
+    private List<String> excludeGlobs = List.of();
+    private Instant modifiedSince;
+    private boolean readArchives;
+    private long watchDebounceMillis = 2000;
+    private boolean rollDaily;
+    private boolean resume;
+    private int checkpointInterval = 25;
+    private boolean parallelLoading;
+    private int parserThreads = Runtime.getRuntime().availableProcessors();
+    private Scheduling scheduling = Scheduling.SOURCE_ORDER;
+    private String costModelPath;
+    private boolean profileAllocations;
+
+    /** @return An independent copy of these options. */
+    public ProcessingOptions copy() {
+        try {
+            return (ProcessingOptions) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    public boolean isUseAuftragsinfo() { return useAuftragsinfo; }
+    public void setUseAuftragsinfo(boolean useAuftragsinfo) { this.useAuftragsinfo = useAuftragsinfo; }
+
+    /** Name of the {@link DocumentParser} used for every PDF; null selects it by {@link #isUseAuftragsinfo()}. */
+    public String getParserName() { return parserName; }
+    public void setParserName(String parserName) { this.parserName = parserName; }
+
+    /** Detects per PDF whether it is an order confirmation or an Auftragsinfo list; the configured parser is the fallback. */
+    public boolean isDetectLayout() { return detectLayout; }
+    public void setDetectLayout(boolean detectLayout) { this.detectLayout = detectLayout; }
+
+    public OutputFormat getOutputFormat() { return outputFormat; }
+    public void setOutputFormat(OutputFormat outputFormat) { this.outputFormat = outputFormat; }
+
+    /** When set, new rows are merged into an existing output instead of replacing it. */
+    public boolean isAppend() { return append; }
+    public void setAppend(boolean append) { this.append = append; }
+
+    /** When set, rows with the same order, confirmation, model and date are kept once (latest file wins). */
+    public boolean isDeduplicate() { return deduplicate; }
+    public void setDeduplicate(boolean deduplicate) { this.deduplicate = deduplicate; }
+
+    /** Optional index file that remembers exported rows across runs; implies deduplication. */
+    public String getDedupIndexPath() { return dedupIndexPath; }
+    public void setDedupIndexPath(String dedupIndexPath) { this.dedupIndexPath = dedupIndexPath; }
+
+    public int getMaxRowsPerShard() { return maxRowsPerShard; }
+    public void setMaxRowsPerShard(int maxRowsPerShard) {
+        if (maxRowsPerShard <= 0 || maxRowsPerShard > EXCEL_MAX_DATA_ROWS) {
+            throw new IllegalArgumentException("maxRowsPerShard must be between 1 and " + EXCEL_MAX_DATA_ROWS);
+        }
+        this.maxRowsPerShard = maxRowsPerShard;
+    }
+
+    public ShardTarget getShardTarget() { return shardTarget; }
+    public void setShardTarget(ShardTarget shardTarget) { this.shardTarget = shardTarget; }
+
+    public ShardKey getShardKey() { return shardKey; }
+    public void setShardKey(ShardKey shardKey) { this.shardKey = shardKey; }
+
+    public int getWriterThreads() { return writerThreads; }
+    public void setWriterThreads(int writerThreads) { this.writerThreads = Math.max(1, writerThreads); }
+
+    /** When set, PDFs in subfolders are processed as well. */
+    public boolean isRecursive() { return recursive; }
+    public void setRecursive(boolean recursive) { this.recursive = recursive; }
+
+    /** Globs a PDF must match (relative path or file name); empty means all PDFs. */
+    public List<String> getIncludeGlobs() { return includeGlobs; }
+    public void setIncludeGlobs(List<String> includeGlobs) { this.includeGlobs = List.copyOf(includeGlobs); }
+
+    /** Globs for PDFs or folders to skip (relative path or name). */
+    public List<String> getExcludeGlobs() { return excludeGlobs; }
+    public void setExcludeGlobs(List<String> excludeGlobs) { this.excludeGlobs = List.copyOf(excludeGlobs); }
+
+    /** Only PDFs modified at or after this instant are processed; null disables the filter. */
+    public Instant getModifiedSince() { return modifiedSince; }
+    public void setModifiedSince(Instant modifiedSince) { this.modifiedSince = modifiedSince; }
+
+    /** When set, PDFs inside ZIP archives are processed directly from the archive. */
+    public boolean isReadArchives() { return readArchives; }
+    public void setReadArchives(boolean readArchives) { this.readArchives = readArchives; }
+
+    /** Watch mode: time a new PDF's size and modification time must stay unchanged before it is parsed. */
+    public long getWatchDebounceMillis() { return watchDebounceMillis; }
+    public void setWatchDebounceMillis(long watchDebounceMillis) { this.watchDebounceMillis = Math.max(0, watchDebounceMillis); }
+
+    /** Watch mode: start a new output file every day (date suffix before the extension). */
+    public boolean isRollDaily() { return rollDaily; }
+    public void setRollDaily(boolean rollDaily) { this.rollDaily = rollDaily; }
+
+    /** When set, a run interrupted earlier continues from its checkpoint journal instead of starting over. */
+    public boolean isResume() { return resume; }
+    public void setResume(boolean resume) { this.resume = resume; }
+
+    /** Number of processed PDFs between two checkpoints of the journal. */
+    public int getCheckpointInterval() { return checkpointInterval; }
+    public void setCheckpointInterval(int checkpointInterval) { this.checkpointInterval = Math.max(1, checkpointInterval); }
+
+    /**
+     * When set, PDFs are read on virtual threads and parsed on a pool of {@link #getParserThreads()}
+     * platform threads; rows keep the order of the sequential run.
+     */
+    public boolean isParallelLoading() { return parallelLoading; }
+    public void setParallelLoading(boolean parallelLoading) { this.parallelLoading = parallelLoading; }
+
+    public int getParserThreads() { return parserThreads; }
+    public void setParserThreads(int parserThreads) { this.parserThreads = Math.max(1, parserThreads); }
+
+    /** Parallel mode: order in which the PDFs are started; the output order is not affected. */
+    public Scheduling getScheduling() { return scheduling; }
+    public void setScheduling(Scheduling scheduling) { this.scheduling = scheduling; }
+
+    /** Optional file with per-PDF processing times of earlier runs, used for {@link Scheduling#LARGEST_FIRST}. */
+    public String getCostModelPath() { return costModelPath; }
+    public void setCostModelPath(String costModelPath) { this.costModelPath = costModelPath; }
+
+    /**
+     * When set, the heap bytes allocated by each pipeline stage and parser are measured and reported
+     * per page and per row after the run. Costs a counter read per stage and PDF.
+     */
+    public boolean isProfileAllocations() { return profileAllocations; }
+    public void setProfileAllocations(boolean profileAllocations) { this.profileAllocations = profileAllocations; }
+}
@@ -0,0 +1,111 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.PageListener;
+import com.msv.pte.core.ParseAllPdfsInFolder.ProgressListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Computes the progress of a run from the work done instead of the number of files.
+ * <p>
+ * Every PDF weighs its file size in bytes, which is known from the directory entry. Page counts
+ * would need a pass that loads every document twice, and for the scanned and generated PDFs this
+ * tool reads the size grows with the page count anyway. Large documents whose page ranges are
+ * extracted in parallel are credited range by range, so the bar keeps moving on a straggler. PDFs
+ * discovered but not yet planned count with the average weight so far.
+ * <p>
+ * Workers credit their work concurrently through atomic counters. Progress is reported at most
+ * every {@link #REPORT_INTERVAL_NANOS} and never decreases; it stays below 100 until discovery is
+ * complete and every discovered PDF is planned.
+ */
+final class ProgressTracker {
+
+    private static final long REPORT_INTERVAL_NANOS = 100_000_000L;
+
+    /** Progress of one PDF. The remaining weight is credited by {@link #finish()}. */
+    final class FileProgress implements PageListener {
+        private final long weight;
+        private final AtomicLong credited = new AtomicLong();
+
+        private FileProgress(long weight) {
+            this.weight = weight;
+        }
+
+        @Override
+        public void onPagesDone(int pages, int pageCount) {
+            long share = weight * pages / Math.max(1, pageCount);
+            long before = credited.getAndAccumulate(share, (current, add) -> Math.min(weight, current + add));
+            credit(Math.min(weight, before + share) - before);
+        }
+
+        /** Marks the PDF as done, whether or not it could be parsed. */
+        void finish() {
+            credit(weight - credited.getAndSet(weight));
+        }
+    }
+
+    private final PdfSource source;
+    private final ProgressListener listener;
+    private final LongAdder plannedWeight = new LongAdder();
+    private final LongAdder doneWeight = new LongAdder();
+    private final AtomicInteger plannedFiles = new AtomicInteger();
+    private final AtomicInteger weightedFiles = new AtomicInteger();
+    private final AtomicInteger lastReported = new AtomicInteger();
+    private final AtomicLong nextReportNanos = new AtomicLong(System.nanoTime());
+
+    ProgressTracker(PdfSource source, ProgressListener listener) {
+        this.source = source;
+        this.listener = listener;
+    }
+
+    /**
+     * Adds a PDF to the planned work; safe to call from any thread.
+     *
+     * @param weight Size of the PDF in bytes; 0 for PDFs that are passed through without work.
+     * @return Handle to credit the work on the PDF.
+     */
+    FileProgress plan(long weight) {
+        plannedWeight.add(weight);
+        plannedFiles.incrementAndGet();
+        if (weight > 0) {
+            weightedFiles.incrementAndGet();
+        }
+        return new FileProgress(weight);
+    }
+
+    /** Reports the current progress regardless of the rate limit. */
+    void reportNow() {
+        report();
+    }
+
+    private void credit(long weight) {
+        if (weight > 0) {
+            doneWeight.add(weight);
+        }
+        long now = System.nanoTime();
+        long next = nextReportNanos.get();
+        if (now - next >= 0 && nextReportNanos.compareAndSet(next, now + REPORT_INTERVAL_NANOS)) {
+            report();
+        }
+    }
+
+    private void report() {
+        int progress = percent();
+        if (lastReported.getAndAccumulate(progress, Math::max) < progress) {
+            listener.onProgress(progress);
+        }
+    }
+
+    private int percent() {
+        boolean discoveryComplete = source.isDiscoveryComplete();
+        int planned = plannedFiles.get();
+        int unplanned = Math.max(0, source.getDiscoveredCount() - planned);
+        long weight = plannedWeight.sum();
+        int weighted = weightedFiles.get();
+        double total = weight + unplanned * (weighted > 0 ? weight / (double) weighted : 1.0);
+        int progress = total > 0 ? (int) (doneWeight.sum() / total * 100) : (planned > 0 ? 100 : 0);
+        return discoveryComplete && unplanned == 0 ? Math.min(progress, 100) : Math.min(progress, 99);
+    }
+}
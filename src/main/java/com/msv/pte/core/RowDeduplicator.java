@@ -0,0 +1,73 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash-based deduplication of rows across the files of one run, keyed on {@link RowKey}.
+ * If several files produce the same key, the rows of the most recently modified file win
+ * and take that file's place in the output order ("latest file wins"). Repeated rows within
+ * one file are kept; they are separate positions of the same document.
+ */
+public class RowDeduplicator {
+
+    // Rows of one key from one file, chained newest first.
+    private record Entry(long lastModified, int file, long sequence, DataRow row, Entry next) {
+    }
+
+    private final Map<RowKey, Entry> entries = new HashMap<>();
+    private int files;
+    private long sequence;
+    private int duplicateCount;
+
+    /**
+     * Adds the rows parsed from one file.
+     *
+     * @param lastModified Modification time of the source file (epoch millis).
+     * @param rows         Rows of that file.
+     */
+    public void addFileRows(long lastModified, List<DataRow> rows) {
+        int file = files++;
+        for (DataRow row : rows) {
+            RowKey key = RowKey.of(row);
+            Entry previous = entries.get(key);
+            if (previous != null && previous.file() != file) {
+                if (previous.lastModified() > lastModified) {
+                    duplicateCount++;
+                    continue;
+                }
+                for (Entry dropped = previous; dropped != null; dropped = dropped.next()) {
+                    duplicateCount++;
+                }
+                previous = null;
+            }
+            entries.put(key, new Entry(lastModified, file, sequence++, row, previous));
+        }
+    }
+
+    /** @return The surviving rows in output order. */
+    public List<DataRow> getRows() {
+        List<Entry> sorted = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            for (; entry != null; entry = entry.next()) {
+                sorted.add(entry);
+            }
+        }
+        sorted.sort(Comparator.comparingLong(Entry::sequence));
+        List<DataRow> rows = new ArrayList<>(sorted.size());
+        for (Entry entry : sorted) {
+            rows.add(entry.row());
+        }
+        return rows;
+    }
+
+    /** @return Number of rows dropped as duplicates so far. */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+}
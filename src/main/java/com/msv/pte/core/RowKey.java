@@ -0,0 +1,48 @@
+package com.msv.pte.core;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Identity of an exported row, built from the four output columns.
+ * Missing values are treated like empty cells so that keys read back from an
+ * existing output match keys of freshly parsed rows.
+ */
+public record RowKey(String orderNumber, String model, String confirmationNumber, String desiredDate) {
+
+    public RowKey {
+        orderNumber = nullToEmpty(orderNumber);
+        model = nullToEmpty(model);
+        confirmationNumber = nullToEmpty(confirmationNumber);
+        desiredDate = nullToEmpty(desiredDate);
+    }
+
+    public static RowKey of(DataRow row) {
+        return new RowKey(row.getOrderNumber(), row.getModel(), row.getConfirmationNumber(), row.getDesiredDate());
+    }
+
+    /**
+     * Returns the rows whose key is not yet in {@code keys}, adding their keys along the way.
+     * Duplicates within {@code rows} are dropped as well; the first occurrence wins.
+     *
+     * @param rows Candidate rows in output order.
+     * @param keys Keys already present; updated in place.
+     * @return The rows to add.
+     */
+    public static List<DataRow> filterNew(List<DataRow> rows, Set<RowKey> keys) {
+        List<DataRow> newRows = new ArrayList<>();
+        for (DataRow row : rows) {
+            if (keys.add(of(row))) {
+                newRows.add(row);
+            }
+        }
+        return newRows;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
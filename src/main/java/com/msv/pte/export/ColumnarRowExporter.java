@@ -0,0 +1,199 @@
+package com.msv.pte.export;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.core.ProcessingOptions;
+import com.msv.pte.core.RowKey;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compact binary, column-oriented exporter (".ptc").
+ * <p>
+ * Layout (all integers big-endian, "varint" = unsigned LEB128):
+ * <pre>
+ * "PTEC" | version:u8 | rowCount:i32
+ * 4 x column: dictSize:varint | dictSize x (byteLength:varint | UTF-8 bytes) | rowCount x index:varint
+ * highlightModel bitset | highlightDate bitset   (ceil(rowCount / 8) bytes each)
+ * </pre>
+ * Dictionary index 0 is reserved for {@code null}. Since confirmation batches repeat the same
+ * order numbers, models and weeks over and over, most cells shrink to a single byte.
+ */
+public class ColumnarRowExporter implements RowExporter {
+
+    private static final byte[] MAGIC = {'P', 'T', 'E', 'C'};
+    private static final int VERSION = 1;
+
+    private static final List<Function<DataRow, String>> COLUMNS = List.of(
+            DataRow::getOrderNumber, DataRow::getModel, DataRow::getConfirmationNumber, DataRow::getDesiredDate);
+
+    @Override
+    public List<String> export(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(Path.of(outputPath)), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(dataRows.size());
+            for (Function<DataRow, String> column : COLUMNS) {
+                writeColumn(out, dataRows, column);
+            }
+            writeBitset(out, dataRows, DataRow::isHighlightModel);
+            writeBitset(out, dataRows, DataRow::isHighlightDate);
+        }
+        return List.of(outputPath);
+    }
+
+    /**
+     * The dictionaries are global to the file, so appending reads the existing rows
+     * and rewrites the file with the new rows added at the end.
+     */
+    @Override
+    public int append(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException {
+        Path path = Path.of(outputPath);
+        List<DataRow> merged = Files.exists(path) ? read(path) : new ArrayList<>();
+        Set<RowKey> keys = new HashSet<>();
+        for (DataRow row : merged) {
+            keys.add(RowKey.of(row));
+        }
+        List<DataRow> newRows = RowKey.filterNew(dataRows, keys);
+        if (!newRows.isEmpty() || !Files.exists(path)) {
+            merged.addAll(newRows);
+            export(merged, outputPath, options);
+        }
+        return newRows.size();
+    }
+
+    /**
+     * Reads a file written by this exporter.
+     *
+     * @param path Path of the ".ptc" file.
+     * @return The stored rows in their original order.
+     * @throws IOException if the file cannot be read or is not a columnar export.
+     */
+    public static List<DataRow> read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Not a columnar export: " + path);
+            }
+            int rowCount = in.readInt();
+            List<DataRow> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                rows.add(new DataRow());
+            }
+            String[][] columns = new String[COLUMNS.size()][];
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = readColumn(in, rowCount);
+            }
+            byte[] highlightModel = readBitset(in, rowCount);
+            byte[] highlightDate = readBitset(in, rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                DataRow row = rows.get(i);
+                row.setOrderNumber(columns[0][i]);
+                row.setModel(columns[1][i]);
+                row.setConfirmationNumber(columns[2][i]);
+                row.setDesiredDate(columns[3][i]);
+                row.setHighlightModel((highlightModel[i >>> 3] & (1 << (i & 7))) != 0);
+                row.setHighlightDate((highlightDate[i >>> 3] & (1 << (i & 7))) != 0);
+            }
+            return rows;
+        }
+    }
+
+    private static void writeColumn(DataOutputStream out, List<DataRow> rows,
+                                    Function<DataRow, String> column) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        int[] indices = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            String value = column.apply(rows.get(i));
+            if (value == null) {
+                continue;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                values.add(value);
+                index = values.size();
+                dictionary.put(value, index);
+            }
+            indices[i] = index;
+        }
+        writeVarInt(out, values.size());
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+        for (int index : indices) {
+            writeVarInt(out, index);
+        }
+    }
+
+    private static String[] readColumn(DataInputStream in, int rowCount) throws IOException {
+        int dictSize = readVarInt(in);
+        String[] dictionary = new String[dictSize + 1];
+        for (int i = 1; i <= dictSize; i++) {
+            byte[] bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        String[] values = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = dictionary[readVarInt(in)];
+        }
+        return values;
+    }
+
+    private static void writeBitset(DataOutputStream out, List<DataRow> rows,
+                                    Predicate<DataRow> flag) throws IOException {
+        byte[] bits = new byte[(rows.size() + 7) >>> 3];
+        for (int i = 0; i < rows.size(); i++) {
+            if (flag.test(rows.get(i))) {
+                bits[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.write(bits);
+    }
+
+    private static byte[] readBitset(DataInputStream in, int rowCount) throws IOException {
+        byte[] bits = new byte[(rowCount + 7) >>> 3];
+        in.readFully(bits);
+        return bits;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
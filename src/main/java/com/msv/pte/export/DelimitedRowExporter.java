@@ -0,0 +1,222 @@
+package com.msv.pte.export;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.core.ProcessingOptions;
+import com.msv.pte.core.RowKey;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming CSV/TSV exporter. Rows are encoded directly into a buffered NIO channel;
+ * fields are quoted RFC 4180 style only when they contain the separator, quotes or line breaks.
+ * Append mode writes new rows to the end of the existing file without rewriting it. The keys of
+ * the last appended file are kept in memory, so repeated appends to the same file (watch mode)
+ * read it only once as long as nobody else changes it in between.
+ */
+public class DelimitedRowExporter implements RowExporter {
+
+    private static final String LINE_END = "\r\n";
+
+    /** Keys of a file as it was after the last append, identified by its size and modification time. */
+    private record KeyCache(Path path, char separator, long size, long lastModified, Set<RowKey> keys) {
+    }
+
+    // Guarded by DelimitedRowExporter.class; taken out while an append uses the keys.
+    private static KeyCache lastKeys;
+
+    private final char separator;
+
+    public DelimitedRowExporter(char separator) {
+        this.separator = separator;
+    }
+
+    @Override
+    public List<String> export(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException {
+        try (ChannelTextWriter writer = new ChannelTextWriter(Path.of(outputPath),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            StringBuilder line = new StringBuilder(128);
+            appendLine(line, RowExporter.HEADERS.get(0), RowExporter.HEADERS.get(1),
+                    RowExporter.HEADERS.get(2), RowExporter.HEADERS.get(3));
+            writer.write(line);
+            for (DataRow row : dataRows) {
+                line.setLength(0);
+                appendLine(line, row.getOrderNumber(), row.getModel(), row.getConfirmationNumber(), row.getDesiredDate());
+                writer.write(line);
+            }
+        }
+        return List.of(outputPath);
+    }
+
+    @Override
+    public int append(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException {
+        Path path = Path.of(outputPath);
+        if (!Files.exists(path)) {
+            List<DataRow> newRows = RowKey.filterNew(dataRows, new HashSet<>());
+            export(newRows, outputPath, options);
+            return newRows.size();
+        }
+        Set<RowKey> keys = takeCachedKeys(path);
+        if (keys == null) {
+            keys = readKeys(path);
+        }
+        List<DataRow> newRows = RowKey.filterNew(dataRows, keys);
+        long size = Files.size(path);
+        boolean lineEndMissing = size > 0 && lastByte(path) != '\n';
+        try (ChannelTextWriter writer = new ChannelTextWriter(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            StringBuilder line = new StringBuilder(128);
+            if (size == 0) {
+                appendLine(line, RowExporter.HEADERS.get(0), RowExporter.HEADERS.get(1),
+                        RowExporter.HEADERS.get(2), RowExporter.HEADERS.get(3));
+                writer.write(line);
+            } else if (lineEndMissing) {
+                // The file was saved without a final line break; the first new row must not extend its last row.
+                line.append(LINE_END);
+                writer.write(line);
+            }
+            for (DataRow row : newRows) {
+                line.setLength(0);
+                appendLine(line, row.getOrderNumber(), row.getModel(), row.getConfirmationNumber(), row.getDesiredDate());
+                writer.write(line);
+            }
+        }
+        cacheKeys(path, keys);
+        return newRows.size();
+    }
+
+    // Returns the cached keys of the file if it has not changed since the last append.
+    private Set<RowKey> takeCachedKeys(Path path) throws IOException {
+        Path file = path.toAbsolutePath().normalize();
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        synchronized (DelimitedRowExporter.class) {
+            KeyCache cache = lastKeys;
+            if (cache == null || !cache.path().equals(file) || cache.separator() != separator
+                    || cache.size() != size || cache.lastModified() != lastModified) {
+                return null;
+            }
+            lastKeys = null;
+            return cache.keys();
+        }
+    }
+
+    private void cacheKeys(Path path, Set<RowKey> keys) throws IOException {
+        Path file = path.toAbsolutePath().normalize();
+        KeyCache cache = new KeyCache(file, separator, Files.size(file),
+                Files.getLastModifiedTime(file).toMillis(), keys);
+        synchronized (DelimitedRowExporter.class) {
+            lastKeys = cache;
+        }
+    }
+
+    private static int lastByte(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, channel.size() - 1);
+            return buffer.get(0);
+        }
+    }
+
+    // Reads the key columns of every data line; the header line is skipped.
+    private Set<RowKey> readKeys(Path path) throws IOException {
+        Set<RowKey> keys = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<String> fields = new ArrayList<>(4);
+            boolean header = true;
+            while (readRecord(reader, fields)) {
+                if (!header && fields.size() >= 4) {
+                    keys.add(new RowKey(fields.get(0), fields.get(1), fields.get(2), fields.get(3)));
+                }
+                header = false;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Reads one record (which may span several physical lines inside quotes) into {@code fields}.
+     *
+     * @return false at end of input.
+     */
+    private boolean readRecord(BufferedReader reader, List<String> fields) throws IOException {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int c = reader.read();
+        if (c < 0) {
+            return false;
+        }
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private void appendLine(StringBuilder line, String... fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append(separator);
+            }
+            appendField(line, fields[i]);
+        }
+        line.append(LINE_END);
+    }
+
+    private void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == separator || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
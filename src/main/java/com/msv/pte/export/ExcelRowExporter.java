@@ -0,0 +1,24 @@
+package com.msv.pte.export;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.core.ParseAllPdfsInFolder.ExcelGenerationService;
+import com.msv.pte.core.ProcessingOptions;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * XLSX exporter backed by {@link ExcelGenerationService}.
+ */
+public class ExcelRowExporter implements RowExporter {
+
+    @Override
+    public List<String> export(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException {
+        return ExcelGenerationService.exportToExcel(dataRows, outputPath, options);
+    }
+
+    @Override
+    public int append(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException {
+        return ExcelGenerationService.appendToExcel(dataRows, outputPath, options);
+    }
+}
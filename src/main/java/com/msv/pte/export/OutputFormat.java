@@ -0,0 +1,45 @@
+package com.msv.pte.export;
+
+/**
+ * Supported output formats. Every format carries the same four columns:
+ * order number, model, confirmation number and desired date.
+ */
+public enum OutputFormat {
+    XLSX("xlsx", "Excel (XLSX)"),
+    CSV("csv", "CSV"),
+    TSV("tsv", "TSV"),
+    COLUMNAR("ptc", "Binär, spaltenbasiert (PTC)");
+
+    private final String extension;
+    private final String label;
+
+    OutputFormat(String extension, String label) {
+        this.extension = extension;
+        this.label = label;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolves a format by its enum name or file extension (case-insensitive).
+     *
+     * @param name Format name such as "csv" or "columnar".
+     * @return The matching format.
+     * @throws IllegalArgumentException if no format matches.
+     */
+    public static OutputFormat fromName(String name) {
+        for (OutputFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown output format: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,58 @@
+package com.msv.pte.export;
+
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.core.ProcessingOptions;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes extracted data rows to an output file in a specific format.
+ */
+public interface RowExporter {
+
+    /** Column headers shared by all formats. */
+    List<String> HEADERS = List.of("Auftragsnummer", "Modell", "Bestätigungsnummer", "Wunschliefertermin");
+
+    /**
+     * Exports the given rows.
+     *
+     * @param dataRows   Rows to export.
+     * @param outputPath Target file path.
+     * @param options    Run options (sharding etc., where the format supports it).
+     * @return Paths of all written files.
+     * @throws IOException if writing fails.
+     */
+    List<String> export(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException;
+
+    /**
+     * Adds rows to an existing output, skipping rows whose {@link com.msv.pte.core.RowKey}
+     * is already present. Creates the output if it does not exist yet.
+     * <p>
+     * The existing keys are read from the output itself, so an append scans the existing rows
+     * once. Delimited outputs keep the keys of the last appended file in memory and then only
+     * write the new lines; XLSX and columnar outputs are rewritten as a whole.
+     *
+     * @param dataRows   Newly parsed rows.
+     * @param outputPath Existing (or new) output file.
+     * @param options    Run options.
+     * @return Number of rows actually added.
+     * @throws IOException if reading or writing fails.
+     */
+    int append(List<DataRow> dataRows, String outputPath, ProcessingOptions options) throws IOException;
+
+    /**
+     * Returns the exporter for the given format.
+     *
+     * @param format Output format.
+     * @return Exporter instance.
+     */
+    static RowExporter forFormat(OutputFormat format) {
+        return switch (format) {
+            case XLSX -> new ExcelRowExporter();
+            case CSV -> new DelimitedRowExporter(',');
+            case TSV -> new DelimitedRowExporter('\t');
+            case COLUMNAR -> new ColumnarRowExporter();
+        };
+    }
+}
@@ -0,0 +1,314 @@
+package com.msv.pte.parser;
+
+import com.msv.pte.database.DeviceModels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts the order number, the confirmation number and the position blocks with their models
+ * and desired dates from an order confirmation in a single forward pass over the text.
+ * <p>
+ * The result is the same as that of {@link OrderNumberProcessor}, {@link ConfrmationNumberProcessor},
+ * {@link PositionNumberProcessor} and {@link DesiredDateProcessor#findDesiredDate}, which each read
+ * the whole text. Here every character is visited once by a hand-written state machine that tracks
+ * all four searches together; no line strings or matchers are created, and the known models are
+ * looked up in a trie instead of with one regular expression per model and line. The fixed patterns
+ * are matched with {@link FixedPatterns}, so matches are identical to the processors.
+ */
+public final class ConfirmationExtractor {
+
+    /**
+     * A position block.
+     *
+     * @param positionNumber The three-digit position number.
+     * @param models         Models of the position; an unknown first word is flagged red.
+     * @param desiredDate    Raw desired date or keyword, "00.00.0000" if neither is found.
+     */
+    public record Position(String positionNumber, List<ModelEntry> models, String desiredDate) {
+    }
+
+    /**
+     * Everything extracted from a confirmation.
+     *
+     * @param orderNumber        The order number, or null if not found.
+     * @param confirmationNumber The confirmation number, or null if not found.
+     * @param positions          The position blocks in document order.
+     */
+    public record Result(String orderNumber, String confirmationNumber, List<Position> positions) {
+    }
+
+    private static final String NO_DATE = "00.00.0000";
+    private static final ModelTrie MODELS = new ModelTrie(DeviceModels.getDeviceModels());
+
+    private ConfirmationExtractor() {
+    }
+
+    /**
+     * Extracts all data of an order confirmation.
+     *
+     * @param pdfText Full text extracted from the PDF.
+     * @return The extracted data.
+     */
+    public static Result extract(String pdfText) {
+        return new Scan(pdfText).run();
+    }
+
+    /** State of one extraction. */
+    private static final class Scan {
+        private final String text;
+        private final int length;
+        private final List<Position> positions = new ArrayList<>();
+        private final boolean[] modelSeen = new boolean[MODELS.size()];
+        private final int[] lineModels = new int[MODELS.size()];
+        private int lineModelCount;
+
+        private String orderNumber;
+        // The order search resumes behind a candidate with an invalid branch code, like Matcher.find().
+        private int orderFrom;
+        private String confirmationNumber;
+
+        private String positionNumber;
+        private List<ModelEntry> models;
+        private String desiredDate;
+        private int blockStart;
+
+        Scan(String text) {
+            this.text = text;
+            this.length = text.length();
+        }
+
+        Result run() {
+            // Lines as produced by split("\\r?\\n"); a lone '\r' stays part of its line.
+            int lineStart = 0;
+            while (lineStart <= length) {
+                int newline = text.indexOf('\n', lineStart);
+                int next = newline < 0 ? length + 1 : newline + 1;
+                int lineEnd = newline < 0 ? length : newline;
+                if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' && newline >= 0) {
+                    lineEnd--;
+                }
+                scanLine(lineStart, lineEnd);
+                lineStart = next;
+            }
+            finishBlock(length);
+            return new Result(orderNumber, confirmationNumber, positions);
+        }
+
+        private void scanLine(int from, int to) {
+            long positionSpan = FixedPatterns.findPositionNumber(text, from, to);
+            if (positionSpan != FixedPatterns.NO_MATCH) {
+                int positionEnd = FixedPatterns.end(positionSpan);
+                finishBlock(from);
+                positionNumber = text.substring(positionEnd - 3, positionEnd);
+                models = new ArrayList<>();
+                desiredDate = null;
+                blockStart = from;
+                String unknownFirstWord = unknownFirstWord(positionEnd, to);
+                if (unknownFirstWord != null) {
+                    models.add(new ModelEntry(unknownFirstWord, true));
+                }
+            }
+            boolean inBlock = positionNumber != null;
+            String lineDate = null;
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                if (orderNumber == null && i >= orderFrom && (c | 0x20) == 'b') {
+                    matchOrderNumber(i);
+                }
+                if (confirmationNumber == null && c == '1') {
+                    matchConfirmationNumber(i);
+                }
+                if (inBlock) {
+                    if (lineDate == null && (c | 0x20) == 'w') {
+                        lineDate = matchDesiredDate(i, to);
+                    }
+                    collectModels(i, from, to);
+                }
+            }
+            if (inBlock) {
+                addLineModels();
+                if (lineDate != null) {
+                    desiredDate = lineDate;
+                }
+            }
+        }
+
+        private void finishBlock(int blockEnd) {
+            if (positionNumber == null) {
+                return;
+            }
+            String date = desiredDate;
+            if (date == null || NO_DATE.equals(date)) {
+                List<String> lines = Arrays.asList(text.substring(blockStart, blockEnd).split("\\r?\\n"));
+                String keyword = PositionNumberProcessor.searchForKeyword(lines);
+                date = keyword != null ? keyword : NO_DATE;
+            }
+            positions.add(new Position(positionNumber, models, date));
+        }
+
+        private void matchOrderNumber(int start) {
+            long span = FixedPatterns.matchOrderNumber(text, start, length);
+            if (span != FixedPatterns.NO_MATCH) {
+                String candidate = text.substring(FixedPatterns.start(span), FixedPatterns.end(span));
+                if (OrderNumberProcessor.isValidCandidate(candidate)) {
+                    orderNumber = candidate;
+                } else {
+                    orderFrom = FixedPatterns.end(span);
+                }
+            }
+        }
+
+        private void matchConfirmationNumber(int start) {
+            long span = FixedPatterns.matchConfirmationNumber(text, 0, length, start);
+            if (span != FixedPatterns.NO_MATCH) {
+                confirmationNumber = text.substring(FixedPatterns.start(span), FixedPatterns.end(span));
+            }
+        }
+
+        // The first word behind the position number if it is not a known model.
+        private String unknownFirstWord(int positionEnd, int to) {
+            int start = positionEnd;
+            int end = to;
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (start == end) {
+                return null;
+            }
+            int wordEnd = start;
+            while (wordEnd < end && !FixedPatterns.isWhitespace(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            String word = text.substring(start, wordEnd);
+            return PositionNumberProcessor.isKnownModel(word) ? null : word;
+        }
+
+        private String matchDesiredDate(int start, int to) {
+            long span = FixedPatterns.matchDesiredDate(text, start, to);
+            return span != FixedPatterns.NO_MATCH ? text.substring(FixedPatterns.start(span), FixedPatterns.end(span)) : null;
+        }
+
+        private void collectModels(int start, int from, int to) {
+            ModelTrie.Node node = MODELS.root;
+            for (int i = start; i < to; i++) {
+                node = node.child(FixedPatterns.asciiLowerCase(text.charAt(i)));
+                if (node == null) {
+                    return;
+                }
+                if (node.id >= 0 && !modelSeen[node.id] && FixedPatterns.isBoundary(text, from, to, i + 1)
+                        && FixedPatterns.isBoundary(text, from, to, start)) {
+                    modelSeen[node.id] = true;
+                    lineModels[lineModelCount++] = node.id;
+                }
+            }
+        }
+
+        // Adds the models found on the line in the order of the model list, duplicates included.
+        private void addLineModels() {
+            if (lineModelCount == 0) {
+                return;
+            }
+            int entryCount = 0;
+            for (int i = 0; i < lineModelCount; i++) {
+                entryCount += MODELS.entries[lineModels[i]].length;
+            }
+            int[] entries = new int[entryCount];
+            entryCount = 0;
+            for (int i = 0; i < lineModelCount; i++) {
+                int id = lineModels[i];
+                modelSeen[id] = false;
+                for (int entry : MODELS.entries[id]) {
+                    entries[entryCount++] = entry;
+                }
+            }
+            Arrays.sort(entries);
+            for (int entry : entries) {
+                models.add(new ModelEntry(MODELS.models[entry], false));
+            }
+            lineModelCount = 0;
+        }
+    }
+
+    /**
+     * Known models by their ASCII lower case, which is how the processors compare them. Models that
+     * differ only in case share one trie entry but are reported once per list entry.
+     */
+    private static final class ModelTrie {
+
+        static final class Node {
+            private char[] labels = new char[0];
+            private Node[] children = new Node[0];
+            int id = -1;
+
+            Node child(char label) {
+                int index = Arrays.binarySearch(labels, label);
+                return index >= 0 ? children[index] : null;
+            }
+
+            Node getOrAddChild(char label) {
+                int index = Arrays.binarySearch(labels, label);
+                if (index >= 0) {
+                    return children[index];
+                }
+                int insert = -index - 1;
+                char[] newLabels = new char[labels.length + 1];
+                Node[] newChildren = new Node[children.length + 1];
+                System.arraycopy(labels, 0, newLabels, 0, insert);
+                System.arraycopy(children, 0, newChildren, 0, insert);
+                newLabels[insert] = label;
+                newChildren[insert] = new Node();
+                System.arraycopy(labels, insert, newLabels, insert + 1, labels.length - insert);
+                System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+                labels = newLabels;
+                children = newChildren;
+                return newChildren[insert];
+            }
+        }
+
+        final Node root = new Node();
+        final String[] models;
+        // Indexes into models per trie entry id.
+        final int[][] entries;
+
+        ModelTrie(String[] models) {
+            this.models = models.clone();
+            Map<String, List<Integer>> entriesByKey = new HashMap<>();
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < models.length; i++) {
+                String key = asciiLowerCase(models[i]);
+                entriesByKey.computeIfAbsent(key, k -> {
+                    keys.add(k);
+                    return new ArrayList<>();
+                }).add(i);
+            }
+            entries = new int[keys.size()][];
+            for (int id = 0; id < keys.size(); id++) {
+                String key = keys.get(id);
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.getOrAddChild(key.charAt(i));
+                }
+                node.id = id;
+                entries[id] = entriesByKey.get(key).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        int size() {
+            return entries.length;
+        }
+    }
+
+    private static String asciiLowerCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = FixedPatterns.asciiLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
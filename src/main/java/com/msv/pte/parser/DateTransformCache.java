@@ -0,0 +1,49 @@
+package com.msv.pte.parser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, thread-safe memo for the date transformations. A batch of confirmations uses only a
+ * few hundred distinct delivery dates, so after the first occurrence a date costs one hash lookup.
+ * <p>
+ * When the cache is full it is cleared and refilled with the dates that occur from then on; this
+ * keeps the memory bounded on unusual input without bookkeeping on every lookup.
+ */
+public final class DateTransformCache {
+
+    /** Distinct inputs kept per cache. */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final UnaryOperator<String> transformation;
+    private final int capacity;
+    private final Map<String, String> results = new ConcurrentHashMap<>();
+
+    /**
+     * @param transformation Pure function to memoize; must not return null for a non-null input.
+     * @param capacity       Maximum number of cached inputs.
+     */
+    public DateTransformCache(UnaryOperator<String> transformation, int capacity) {
+        this.transformation = transformation;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the transformed value, computing it on the first request.
+     *
+     * @param value Input value; must not be null.
+     * @return The transformed value.
+     */
+    public String get(String value) {
+        String result = results.get(value);
+        if (result == null) {
+            result = transformation.apply(value);
+            if (results.size() >= capacity) {
+                results.clear();
+            }
+            results.put(value, result);
+        }
+        return result;
+    }
+}
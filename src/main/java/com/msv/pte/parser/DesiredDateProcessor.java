@@ -1,14 +1,8 @@
 package com.msv.pte.parser;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.WeekFields;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Processes and transforms desired delivery dates extracted from PDF text.
@@ -25,10 +19,14 @@ public class DesiredDateProcessor {
 
     private static final String INVALID_DATE = "00.00.0000";
 
-    // Precompiled pattern for finding desired date in a text line.
-    private static final Pattern DATE_PATTERN = Pattern.compile(
-            "(?i)(?:WUNSCHLIEFERTERMIN|WOCHE)\\s*:?\\s*(\\d{1,2}\\.\\d{1,2}\\.\\d{4}|\\d{1,2}\\.\\d{4})"
-    );
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+    // Per-month offsets of Sakamoto's day-of-week formula.
+    private static final int[] DAY_OF_WEEK_OFFSET = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+    // All "KWJJ" results, indexed by week * 100 + two-digit year; filled on first use.
+    private static final String[] KWJJ = new String[100 * 100];
+    private static final DateTransformCache TRANSFORMED_DATES =
+            new DateTransformCache(DesiredDateProcessor::computeTransformDate, DateTransformCache.DEFAULT_CAPACITY);
 
     /**
      * Searches for a desired delivery date in the given text line.
@@ -37,69 +35,108 @@ public class DesiredDateProcessor {
      * @return the found date string, or null if none is found
      */
     public static String findDesiredDate(String line) {
-        Matcher matcher = DATE_PATTERN.matcher(line);
-        return matcher.find() ? matcher.group(1) : null;
+        long span = FixedPatterns.findDesiredDate(line, 0, line.length());
+        return span != FixedPatterns.NO_MATCH ? line.substring(FixedPatterns.start(span), FixedPatterns.end(span)) : null;
     }
 
     /**
      * Transforms a raw date string into the standardized "KWJJ" format.
      * Supports both full date format (dd.mm.yyyy) and week-year format (d{1,2}.yyyy).
      * If conversion fails or the input is a special keyword, the original value is returned.
+     * <p>
+     * Results are memoized, so a recurring date costs one hash lookup.
      *
      * @param rawDate the raw date string
      * @return the transformed date string, or the original value if conversion is not possible
      */
     public static String transformDate(String rawDate) {
-        if (rawDate == null || INVALID_DATE.equals(rawDate)) {
+        return rawDate == null ? null : TRANSFORMED_DATES.get(rawDate);
+    }
+
+    /**
+     * Computes {@link #transformDate}. The input is parsed by hand and the ISO week is computed with
+     * integer arithmetic; the result comes from a table of all "KWJJ" strings.
+     */
+    private static String computeTransformDate(String rawDate) {
+        // Keywords and the invalid date never have a convertible form, so they fall through unchanged.
+        int length = rawDate.length();
+        int firstEnd = digitsEnd(rawDate, 0);
+        if (firstEnd == 0 || firstEnd > 2 || firstEnd == length || rawDate.charAt(firstEnd) != '.') {
             return rawDate;
         }
-        if (KEYWORDS.contains(rawDate.toLowerCase())) {
-            return rawDate;
+        int first = parseDigits(rawDate, 0, firstEnd);
+        int secondStart = firstEnd + 1;
+        int secondEnd = digitsEnd(rawDate, secondStart);
+        if (secondEnd == length && secondEnd - secondStart == 4) {
+            // week-year format (d{1,2}.yyyy)
+            return kwjj(first, parseDigits(rawDate, secondStart, secondEnd) % 100);
         }
-        // Check for full date format (dd.mm.yyyy) allowing one or two digits for day and month.
-        if (rawDate.matches("^\\d{1,2}\\.\\d{1,2}\\.\\d{4}$")) {
-            return transformFullDate(rawDate);
+        if (secondEnd == secondStart || secondEnd - secondStart > 2 || secondEnd == length
+                || rawDate.charAt(secondEnd) != '.') {
+            return rawDate;
         }
-        // Check for week-year format (d{1,2}.yyyy)
-        if (rawDate.matches("^\\d{1,2}\\.\\d{4}$")) {
-            return transformWeekYear(rawDate);
+        int yearStart = secondEnd + 1;
+        if (digitsEnd(rawDate, yearStart) != length || length - yearStart != 4) {
+            return rawDate;
         }
-        return rawDate;
+        // full date format (dd.mm.yyyy)
+        int week = isoWeekOfYear(first, parseDigits(rawDate, secondStart, secondEnd),
+                parseDigits(rawDate, yearStart, length));
+        return week < 0 ? rawDate : kwjj(week, parseDigits(rawDate, yearStart, length) % 100);
     }
 
     /**
-     * Converts a full date (dd.mm.yyyy) into the "KWJJ" format.
+     * Computes the week of year as defined by {@code WeekFields.ISO.weekOfYear()}: weeks start on
+     * Monday and week 1 is the first week with at least four days in the year, so days before it are
+     * in week 0. Dates are resolved like {@code LocalDate.parse} with the default (smart) resolver:
+     * a day beyond the end of the month is moved to its last day.
      *
-     * @param fullDate the date in dd.mm.yyyy format
-     * @return the date in "KWJJ" format, or the original string if parsing fails
+     * @return the week (0 to 53), or -1 if the date cannot be resolved
      */
-    private static String transformFullDate(String fullDate) {
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d.M.yyyy");
-            LocalDate date = LocalDate.parse(fullDate, formatter);
-            int week = date.get(WeekFields.ISO.weekOfYear());
-            int yearShort = date.getYear() % 100;
-            return String.format("%02d%02d", week, yearShort);
-        } catch (DateTimeParseException ex) {
-            return fullDate;
+    private static int isoWeekOfYear(int day, int month, int year) {
+        if (day < 1 || day > 31 || month < 1 || month > 12 || year < 1) {
+            return -1;
         }
+        boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        day = Math.min(day, month == 2 ? (leap ? 29 : 28) : DAYS_IN_MONTH[month - 1]);
+        int dayOfYear = DAYS_BEFORE_MONTH[month - 1] + day + (leap && month > 2 ? 1 : 0);
+        int y = month < 3 ? year - 1 : year;
+        int sundayBased = (y + y / 4 - y / 100 + y / 400 + DAY_OF_WEEK_OFFSET[month - 1] + day) % 7;
+        int dayOfWeek = sundayBased == 0 ? 7 : sundayBased;
+        int weekStart = Math.floorMod(dayOfYear - dayOfWeek, 7);
+        int offset = weekStart + 1 > 4 ? 7 - weekStart : -weekStart;
+        return (7 + offset + dayOfYear - 1) / 7;
     }
 
-    /**
-     * Converts a week-year date (d{1,2}.yyyy) into the "KWJJ" format.
-     *
-     * @param weekYear the date in d{1,2}.yyyy format
-     * @return the date in "KWJJ" format, or the original string if parsing fails
-     */
-    private static String transformWeekYear(String weekYear) {
-        try {
-            String[] parts = weekYear.split("\\.");
-            int week = Integer.parseInt(parts[0]);
-            int year = Integer.parseInt(parts[1]);
-            return String.format("%02d%02d", week, year % 100);
-        } catch (NumberFormatException ex) {
-            return weekYear;
+    // Returns the end of the run of ASCII digits starting at start.
+    private static int digitsEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && text.charAt(end) >= '0' && text.charAt(end) <= '9') {
+            end++;
+        }
+        return end;
+    }
+
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    // week and yearShort are both in 0..99
+    private static String kwjj(int week, int yearShort) {
+        int index = week * 100 + yearShort;
+        String result = KWJJ[index];
+        if (result == null) {
+            // Racing threads may both create the string; either copy is fine.
+            result = new String(new char[] {
+                    (char) ('0' + week / 10), (char) ('0' + week % 10),
+                    (char) ('0' + yearShort / 10), (char) ('0' + yearShort % 10)});
+            KWJJ[index] = result;
         }
+        return result;
     }
 
     /**
@@ -0,0 +1,350 @@
+package com.msv.pte.parser;
+
+/**
+ * Deterministic matchers for the fixed extraction patterns. Each one gives the same matches as the
+ * regular expression it replaces:
+ * <ul>
+ *   <li>{@link #findOrderNumber}: {@code (?i)(Bestellung|Bestelltext)\s+(\S{5,6})}, group 2</li>
+ *   <li>{@link #findConfirmationNumber}: {@code \b(144|145)\d{6,8}\b}, the AB number of both approaches</li>
+ *   <li>{@link #findPositionNumber}: {@code ^\s*(\d{3})\b}, group 1</li>
+ *   <li>{@link #findDesiredDate}: {@code (?i)(?:WUNSCHLIEFERTERMIN|WOCHE)\s*:?\s*(\d{1,2}\.\d{1,2}\.\d{4}|\d{1,2}\.\d{4})}, group 1</li>
+ *   <li>{@link #findWeekDate}: {@code \b\d{1,2}\.\d{4}\b}</li>
+ * </ul>
+ * The matchers are automata written out by hand: they decide on every character as it is read,
+ * so a failed attempt never re-reads input the way the backtracking engine of
+ * {@code java.util.regex} does, and they run on any {@link CharSequence} region without creating a
+ * {@code Matcher}. A match is returned as a span, its start and end packed into a {@code long}, so
+ * searching allocates nothing; {@link #NO_MATCH} if there is none. Word boundaries, whitespace and
+ * case-insensitivity follow {@code java.util.regex} ({@code \b}, {@code \s}, ASCII case folding).
+ */
+public final class FixedPatterns {
+
+    /** Returned by the find methods when there is no match. */
+    public static final long NO_MATCH = -1L;
+
+    private static final String BESTELL = "bestell";
+    private static final String WUNSCHLIEFERTERMIN = "wunschliefertermin";
+    private static final String WOCHE = "woche";
+
+    private FixedPatterns() {
+    }
+
+    /** @return Start index of a span returned by a find method. */
+    public static int start(long span) {
+        return (int) (span >>> 32);
+    }
+
+    /** @return End index (exclusive) of a span returned by a find method. */
+    public static int end(long span) {
+        return (int) span;
+    }
+
+    /**
+     * Finds the next order number candidate: the token of five or six non-space characters after
+     * "Bestellung" or "Bestelltext". To continue behind an invalid candidate, search again from its end.
+     *
+     * @param text  The text to search.
+     * @param start Index to search from.
+     * @param to    End of the searched region.
+     * @return Span of the token, or {@link #NO_MATCH}.
+     */
+    public static long findOrderNumber(CharSequence text, int start, int to) {
+        for (int i = start; i < to; i++) {
+            if ((text.charAt(i) | 0x20) == 'b') {
+                long span = matchOrderNumber(text, i, to);
+                if (span != NO_MATCH) {
+                    return span;
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Finds the next confirmation (AB) number: a word of 9 to 11 digits starting with 144 or 145.
+     *
+     * @param text  The text to search.
+     * @param from  Start of the region; word boundaries do not look before it.
+     * @param to    End of the region.
+     * @param start Index to search from.
+     * @return Span of the number, or {@link #NO_MATCH}.
+     */
+    public static long findConfirmationNumber(CharSequence text, int from, int to, int start) {
+        for (int i = start; i < to; i++) {
+            if (text.charAt(i) == '1') {
+                long span = matchConfirmationNumber(text, from, to, i);
+                if (span != NO_MATCH) {
+                    return span;
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Matches a position number: three digits at the start of the region, after optional whitespace,
+     * that end a word.
+     *
+     * @param text The text, usually one line.
+     * @param from Start of the region.
+     * @param to   End of the region.
+     * @return Span of the three digits, or {@link #NO_MATCH}.
+     */
+    public static long findPositionNumber(CharSequence text, int from, int to) {
+        int start = skipWhitespace(text, from, to);
+        int end = start + 3;
+        if (end > to || !isDigit(text.charAt(start)) || !isDigit(text.charAt(start + 1))
+                || !isDigit(text.charAt(start + 2)) || !isBoundary(text, from, to, end)) {
+            return NO_MATCH;
+        }
+        return span(start, end);
+    }
+
+    /**
+     * Finds the next desired date: a date (dd.mm.yyyy) or week (ww.yyyy) after "Wunschliefertermin"
+     * or "Woche" and an optional colon.
+     *
+     * @param text  The text to search.
+     * @param start Index to search from.
+     * @param to    End of the searched region.
+     * @return Span of the date, or {@link #NO_MATCH}.
+     */
+    public static long findDesiredDate(CharSequence text, int start, int to) {
+        for (int i = start; i < to; i++) {
+            if ((text.charAt(i) | 0x20) == 'w') {
+                long span = matchDesiredDate(text, i, to);
+                if (span != NO_MATCH) {
+                    return span;
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Finds the next week date (ww.yyyy) that is a word of its own.
+     *
+     * @param text  The text to search.
+     * @param from  Start of the region; word boundaries do not look before it.
+     * @param to    End of the region.
+     * @param start Index to search from.
+     * @return Span of the date, or {@link #NO_MATCH}.
+     */
+    public static long findWeekDate(CharSequence text, int from, int to, int start) {
+        for (int i = start; i < to; i++) {
+            if (isDigit(text.charAt(i)) && isBoundary(text, from, to, i)) {
+                int dot = dottedNumberEnd(text, i, to);
+                if (dot >= 0 && isYear(text, dot, to) && isBoundary(text, from, to, dot + 4)) {
+                    return span(i, dot + 4);
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Checks if the whole token is a confirmation (AB) number, like {@code token.matches("(144|145)\\d{6,8}")}.
+     *
+     * @param token The token to check.
+     * @return True if the token is an AB number.
+     */
+    public static boolean isConfirmationNumber(CharSequence token) {
+        int length = token.length();
+        return length >= 9 && length <= 11 && digitsEnd(token, 0, length) == length
+                && token.charAt(0) == '1' && token.charAt(1) == '4'
+                && (token.charAt(2) == '4' || token.charAt(2) == '5');
+    }
+
+    /**
+     * Checks if the whole token is a week date, like {@code token.matches("\\d{1,2}\\.\\d{4}")}.
+     *
+     * @param token The token to check.
+     * @return True if the token is a week date.
+     */
+    public static boolean isWeekDate(CharSequence token) {
+        return isWeekDate(token, 0, token.length());
+    }
+
+    /**
+     * Checks if the whole token is a calendar week with "KW" prefix, like
+     * {@code token.matches("(?i)KW\\s+\\d{1,2}\\.\\d{4}")}.
+     *
+     * @param token The token to check.
+     * @return True if the token is a prefixed week date.
+     */
+    public static boolean isCalendarWeek(CharSequence token) {
+        int length = token.length();
+        if (length < 3 || (token.charAt(0) | 0x20) != 'k' || (token.charAt(1) | 0x20) != 'w'
+                || !isWhitespace(token.charAt(2))) {
+            return false;
+        }
+        return isWeekDate(token, skipWhitespace(token, 2, length), length);
+    }
+
+    private static boolean isWeekDate(CharSequence text, int start, int end) {
+        int dot = dottedNumberEnd(text, start, end);
+        return dot >= 0 && dot + 4 == end && isYear(text, dot, end);
+    }
+
+    // "Bestellung" or "Bestelltext", whitespace, then the first five or six non-space code points.
+    static long matchOrderNumber(CharSequence text, int start, int to) {
+        int keywordEnd = start + BESTELL.length();
+        if (!regionMatchesAscii(text, start, to, BESTELL) || keywordEnd >= to) {
+            return NO_MATCH;
+        }
+        switch (asciiLowerCase(text.charAt(keywordEnd))) {
+            case 'u' -> keywordEnd = regionMatchesAscii(text, keywordEnd + 1, to, "ng") ? keywordEnd + 3 : -1;
+            case 't' -> keywordEnd = regionMatchesAscii(text, keywordEnd + 1, to, "ext") ? keywordEnd + 4 : -1;
+            default -> keywordEnd = -1;
+        }
+        if (keywordEnd < 0) {
+            return NO_MATCH;
+        }
+        int tokenStart = skipWhitespace(text, keywordEnd, to);
+        if (tokenStart == keywordEnd) {
+            return NO_MATCH;
+        }
+        int tokenEnd = tokenStart;
+        int codePoints = 0;
+        while (codePoints < 6 && tokenEnd < to) {
+            int codePoint = Character.codePointAt(text, tokenEnd);
+            int next = tokenEnd + Character.charCount(codePoint);
+            if (next > to || isWhitespace(codePoint)) {
+                break;
+            }
+            tokenEnd = next;
+            codePoints++;
+        }
+        return codePoints >= 5 ? span(tokenStart, tokenEnd) : NO_MATCH;
+    }
+
+    static long matchConfirmationNumber(CharSequence text, int from, int to, int start) {
+        if (start + 9 > to || text.charAt(start) != '1' || text.charAt(start + 1) != '4'
+                || text.charAt(start + 2) != '4' && text.charAt(start + 2) != '5'
+                || !isBoundary(text, from, to, start)) {
+            return NO_MATCH;
+        }
+        int end = digitsEnd(text, start, Math.min(to, start + 12));
+        int digits = end - start;
+        return digits >= 9 && digits <= 11 && isBoundary(text, from, to, end) ? span(start, end) : NO_MATCH;
+    }
+
+    static long matchDesiredDate(CharSequence text, int start, int to) {
+        int keywordEnd;
+        if (regionMatchesAscii(text, start, to, WOCHE)) {
+            keywordEnd = start + WOCHE.length();
+        } else if (regionMatchesAscii(text, start, to, WUNSCHLIEFERTERMIN)) {
+            keywordEnd = start + WUNSCHLIEFERTERMIN.length();
+        } else {
+            return NO_MATCH;
+        }
+        int dateStart = skipWhitespace(text, keywordEnd, to);
+        if (dateStart < to && text.charAt(dateStart) == ':') {
+            dateStart = skipWhitespace(text, dateStart + 1, to);
+        }
+        // dd. is shared by both forms; the next character decides between mm.yyyy and yyyy.
+        int day = dottedNumberEnd(text, dateStart, to);
+        if (day < 0) {
+            return NO_MATCH;
+        }
+        int month = dottedNumberEnd(text, day, to);
+        if (month >= 0 && isYear(text, month, to)) {
+            return span(dateStart, month + 4);
+        }
+        return isYear(text, day, to) ? span(dateStart, day + 4) : NO_MATCH;
+    }
+
+    // One or two digits followed by a dot; returns the index behind the dot or -1.
+    private static int dottedNumberEnd(CharSequence text, int start, int to) {
+        if (start >= to || !isDigit(text.charAt(start))) {
+            return -1;
+        }
+        int dot = start + 1 < to && isDigit(text.charAt(start + 1)) ? start + 2 : start + 1;
+        return dot < to && text.charAt(dot) == '.' ? dot + 1 : -1;
+    }
+
+    private static boolean isYear(CharSequence text, int start, int to) {
+        return start + 4 <= to && digitsEnd(text, start, start + 4) == start + 4;
+    }
+
+    private static int digitsEnd(CharSequence text, int start, int to) {
+        while (start < to && isDigit(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    static boolean regionMatchesAscii(CharSequence text, int start, int to, String lowerCaseWord) {
+        if (start + lowerCaseWord.length() > to) {
+            return false;
+        }
+        for (int i = 0; i < lowerCaseWord.length(); i++) {
+            if (asciiLowerCase(text.charAt(start + i)) != lowerCaseWord.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int skipWhitespace(CharSequence text, int start, int to) {
+        while (start < to && isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /** {@code \b} of java.util.regex at index within the region [from, to). */
+    static boolean isBoundary(CharSequence text, int from, int to, int index) {
+        boolean left = false;
+        if (index > from) {
+            int codePoint = Character.codePointBefore(text, index);
+            left = isWord(codePoint) || isMark(codePoint) && hasBaseCharacter(text, from, index - 1);
+        }
+        boolean right = false;
+        if (index < to) {
+            int codePoint = Character.codePointAt(text, index);
+            right = isWord(codePoint) || isMark(codePoint) && hasBaseCharacter(text, from, index);
+        }
+        return left != right;
+    }
+
+    // Non-spacing marks count as word characters if they follow a letter or digit.
+    private static boolean hasBaseCharacter(CharSequence text, int from, int index) {
+        for (int i = index; i >= from; i--) {
+            int codePoint = Character.codePointAt(text, i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                return true;
+            }
+            if (!isMark(codePoint)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    static char asciiLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** {@code \s} of java.util.regex. */
+    static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    // \w of java.util.regex, which \b uses.
+    private static boolean isWord(int c) {
+        return c < 128 && (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_');
+    }
+
+    private static boolean isMark(int codePoint) {
+        return Character.getType(codePoint) == Character.NON_SPACING_MARK;
+    }
+
+    private static long span(int start, int end) {
+        return (long) start << 32 | end;
+    }
+}
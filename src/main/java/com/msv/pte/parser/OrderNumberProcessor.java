@@ -1,8 +1,6 @@
 package com.msv.pte.parser;
 
 import com.msv.pte.database.BranchNumbers;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Extracts an order number ("Auftragsnummer") from PDF text.
@@ -11,9 +9,6 @@ import java.util.regex.Pattern;
  */
 public class OrderNumberProcessor {
 
-    // Pattern to match "Bestellung" or "Bestelltext" followed by a 5-6 character order number.
-    private static final Pattern ORDER_PATTERN = Pattern.compile("(?i)(Bestellung|Bestelltext)\\s+(\\S{5,6})");
-
     /**
      * Finds the order number in the provided PDF text.
      *
@@ -21,19 +16,32 @@ public class OrderNumberProcessor {
      * @return The order number if found; otherwise, null.
      */
     public static String findOrderNumber(String pdfText) {
-        Matcher matcher = ORDER_PATTERN.matcher(pdfText);
-        while (matcher.find()) {
-            String candidate = matcher.group(2);
-            if (candidate != null && candidate.length() >= 2) {
-                String branchCode = candidate.substring(0, 2).toUpperCase();
-                if (isValidBranch(branchCode)) {
-                    return candidate;
-                }
+        int length = pdfText.length();
+        long span = FixedPatterns.findOrderNumber(pdfText, 0, length);
+        while (span != FixedPatterns.NO_MATCH) {
+            String candidate = pdfText.substring(FixedPatterns.start(span), FixedPatterns.end(span));
+            if (isValidCandidate(candidate)) {
+                return candidate;
             }
+            span = FixedPatterns.findOrderNumber(pdfText, FixedPatterns.end(span), length);
         }
         return null;
     }
 
+    /**
+     * Checks if a token found behind the keyword starts with a valid branch code.
+     *
+     * @param candidate The token behind "Bestellung" or "Bestelltext".
+     * @return True if the token is an order number; otherwise, false.
+     */
+    static boolean isValidCandidate(String candidate) {
+        if (candidate != null && candidate.length() >= 2) {
+            String branchCode = candidate.substring(0, 2).toUpperCase();
+            return isValidBranch(branchCode);
+        }
+        return false;
+    }
+
     /**
      * Checks if the provided branch code is valid.
      *
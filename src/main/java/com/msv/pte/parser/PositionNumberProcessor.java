@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Extracts position data from PDF text.
@@ -16,13 +17,20 @@ import java.util.regex.Pattern;
  */
 public class PositionNumberProcessor {
 
-    private static final Pattern POSITION_PATTERN = Pattern.compile("^\\s*(\\d{3})\\b");
     private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
             "auslauf", "neuanlauf", "ersatzlos", "ausgelaufen",
             "bezugsberechtigung", "nicht bezogen", "berechtigung",
             "nicht bekannt", "unbekannt"
     ));
 
+    // Texts with at least this many lines are analysed with a parallel stream.
+    private static final int PARALLEL_LINE_THRESHOLD = 2_000;
+
+    /** Contribution of a single line to a position block. */
+    private record LineInfo(String line, String positionNumber, String unknownFirstWord,
+                            List<String> models, String date) {
+    }
+
     /**
      * Represents a block of position data.
      */
@@ -56,30 +64,38 @@ public class PositionNumberProcessor {
 
     /**
      * Splits the PDF text into position blocks and extracts models and dates.
+     * Every line is analysed on its own (in parallel for long texts); the blocks are then built
+     * in a single sequential pass, so a block may span any number of lines or pages.
      *
      * @param pdfText Full text extracted from the PDF.
      * @return List of position blocks.
      */
     public static List<PositionData> extractPositionsModelsAndDates(String pdfText) {
-        List<PositionData> positions = new ArrayList<>();
         String[] lines = pdfText.split("\\r?\\n");
-        PositionData currentBlock = null;
+        Stream<String> lineStream = Arrays.stream(lines);
+        if (lines.length >= PARALLEL_LINE_THRESHOLD) {
+            lineStream = lineStream.parallel();
+        }
+        List<LineInfo> lineInfos = lineStream.map(PositionNumberProcessor::analyzeLine).toList();
 
-        for (String line : lines) {
-            Matcher matcher = POSITION_PATTERN.matcher(line);
-            if (matcher.find()) {
+        List<PositionData> positions = new ArrayList<>();
+        PositionData currentBlock = null;
+        for (LineInfo info : lineInfos) {
+            if (info.positionNumber() != null) {
                 // Finalize previous block
                 if (currentBlock != null) {
                     finalizeBlock(currentBlock);
                 }
-                currentBlock = new PositionData(matcher.group(1));
+                currentBlock = new PositionData(info.positionNumber());
                 positions.add(currentBlock);
-                currentBlock.getLines().add(line);
-                addFirstWordAfterPosition(line, currentBlock);
-                addModelsAndDateFromLine(line, currentBlock);
+                currentBlock.getLines().add(info.line());
+                if (info.unknownFirstWord() != null) {
+                    currentBlock.getModels().add(new ModelEntry(info.unknownFirstWord(), true));
+                }
+                addModelsAndDate(info, currentBlock);
             } else if (currentBlock != null) {
-                currentBlock.getLines().add(line);
-                addModelsAndDateFromLine(line, currentBlock);
+                currentBlock.getLines().add(info.line());
+                addModelsAndDate(info, currentBlock);
             }
         }
         if (currentBlock != null) {
@@ -87,6 +103,26 @@ public class PositionNumberProcessor {
         }
         return positions;
     }
+
+    /**
+     * Extracts everything a single line contributes to a position block.
+     * Depends on the line only, so lines can be analysed concurrently.
+     *
+     * @param line The input line.
+     * @return The line's position number, models and date.
+     */
+    private static LineInfo analyzeLine(String line) {
+        String positionNumber = null;
+        String unknownFirstWord = null;
+        long span = FixedPatterns.findPositionNumber(line, 0, line.length());
+        if (span != FixedPatterns.NO_MATCH) {
+            positionNumber = line.substring(FixedPatterns.start(span), FixedPatterns.end(span));
+            unknownFirstWord = findUnknownFirstWord(line, FixedPatterns.end(span));
+        }
+        return new LineInfo(line, positionNumber, unknownFirstWord, extractModelsFromLine(line),
+                DesiredDateProcessor.findDesiredDate(line));
+    }
+
     /**
      * Finalizes a block by ensuring a desired date is set.
      * If none is found, searches the block lines for a keyword.
@@ -106,7 +142,7 @@ public class PositionNumberProcessor {
      * @param lines List of block lines.
      * @return The first found keyword or null.
      */
-    private static String searchForKeyword(List<String> lines) {
+    static String searchForKeyword(List<String> lines) {
         for (String line : lines) {
             String lowerLine = line.toLowerCase();
             for (String kw : KEYWORDS) {
@@ -119,43 +155,40 @@ public class PositionNumberProcessor {
     }
 
     /**
-     * Extracts models and desired date from the given line and adds them to the block.
+     * Adds the models and desired date found on a line to the block.
      *
-     * @param line  The input line.
+     * @param info  The analysed line.
      * @param block The current position block.
      */
-    private static void addModelsAndDateFromLine(String line, PositionData block) {
-        List<String> models = extractModelsFromLine(line);
-        for (String model : models) {
+    private static void addModelsAndDate(LineInfo info, PositionData block) {
+        for (String model : info.models()) {
             block.getModels().add(new ModelEntry(model, false));
         }
-        String date = DesiredDateProcessor.findDesiredDate(line);
-        if (date != null) {
-            block.setDesiredDate(date);
+        if (info.date() != null) {
+            block.setDesiredDate(info.date());
         }
     }
 
     /**
-     * Extracts the first word after the position number.
-     * If it is not a known model, adds it as a model with red flag.
+     * Returns the first word after the position number if it is not a known model.
+     * Such words are added to the block as models with red flag.
      *
-     * @param line  The input line.
-     * @param block The current position block.
+     * @param line        The input line.
+     * @param positionEnd End of the position number within the line.
+     * @return The unknown first word, or null.
      */
-    private static void addFirstWordAfterPosition(String line, PositionData block) {
-        Matcher matcher = POSITION_PATTERN.matcher(line);
-        if (matcher.find()) {
-            int end = matcher.end();
-            String remaining = line.substring(end).trim();
-            if (!remaining.isEmpty()) {
-                String[] parts = remaining.split("\\s+", 2);
-                String firstWord = parts[0];
-                if (!isKnownModel(firstWord)) {
-                    block.getModels().add(new ModelEntry(firstWord, true));
-                }
+    private static String findUnknownFirstWord(String line, int positionEnd) {
+        String remaining = line.substring(positionEnd).trim();
+        if (!remaining.isEmpty()) {
+            String[] parts = remaining.split("\\s+", 2);
+            String firstWord = parts[0];
+            if (!isKnownModel(firstWord)) {
+                return firstWord;
             }
         }
+        return null;
     }
+
     /**
      * Extracts known model names from the line.
      *
@@ -181,7 +214,7 @@ public class PositionNumberProcessor {
      * @param candidate The candidate string.
      * @return True if it is a known model, false otherwise.
      */
-    private static boolean isKnownModel(String candidate) {
+    static boolean isKnownModel(String candidate) {
         for (String model : DeviceModels.getDeviceModels()) {
             if (model.equalsIgnoreCase(candidate)) {
                 return true;
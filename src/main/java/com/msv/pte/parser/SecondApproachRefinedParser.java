@@ -5,8 +5,6 @@ import com.msv.pte.database.DeviceModels;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Refined parser for the second approach.
@@ -18,9 +16,6 @@ import java.util.regex.Pattern;
  */
 public class SecondApproachRefinedParser {
 
-    private static final Pattern AB_PATTERN = Pattern.compile("\\b(144|145)\\d{6,8}\\b");
-    private static final Pattern DATE_PATTERN = Pattern.compile("\\b\\d{1,2}\\.\\d{4}\\b");
-
     /**
      * Container for a parsed result row.
      * Column A: Contract number (auftragsNummer)
@@ -35,6 +30,12 @@ public class SecondApproachRefinedParser {
         public String datum;
     }
 
+    /** Receives the fields of each result row. */
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(String auftragsNummer, String modelName, String abNummer, String datum);
+    }
+
     /**
      * Parses the given PDF text and returns a list of result rows.
      *
@@ -43,6 +44,24 @@ public class SecondApproachRefinedParser {
      */
     public static List<SecondApproachResultRow> parse(String pdfText) {
         List<SecondApproachResultRow> resultRows = new ArrayList<>();
+        parse(pdfText, (auftragsNummer, modelName, abNummer, datum) -> {
+            SecondApproachResultRow row = new SecondApproachResultRow();
+            row.auftragsNummer = auftragsNummer;
+            row.modelName = modelName;
+            row.abNummer = abNummer;
+            row.datum = datum;
+            resultRows.add(row);
+        });
+        return resultRows;
+    }
+
+    /**
+     * Parses the given PDF text and hands every result row to the handler.
+     *
+     * @param pdfText Full text extracted from a PDF.
+     * @param handler Receives the rows in document order.
+     */
+    public static void parse(String pdfText, RowHandler handler) {
         String currentAB = null;
         String currentAuftrag = null;
 
@@ -68,15 +87,9 @@ public class SecondApproachRefinedParser {
 
             // Create a result row for each found model
             for (String model : models) {
-                SecondApproachResultRow row = new SecondApproachResultRow();
-                row.auftragsNummer = currentAuftrag;
-                row.modelName = model;
-                row.abNummer = currentAB;
-                row.datum = lastDate;
-                resultRows.add(row);
+                handler.onRow(currentAuftrag, model, currentAB, lastDate);
             }
         }
-        return resultRows;
     }
 
     /**
@@ -87,9 +100,9 @@ public class SecondApproachRefinedParser {
      * @return Updated AB value if found, otherwise returns currentAB.
      */
     private static String updateCurrentAB(String line, String currentAB) {
-        Matcher matcher = AB_PATTERN.matcher(line);
-        if (matcher.find()) {
-            return matcher.group();
+        long span = FixedPatterns.findConfirmationNumber(line, 0, line.length(), 0);
+        if (span != FixedPatterns.NO_MATCH) {
+            return line.substring(FixedPatterns.start(span), FixedPatterns.end(span));
         }
         return currentAB;
     }
@@ -136,12 +149,13 @@ public class SecondApproachRefinedParser {
      * @return The last date token if found, otherwise null.
      */
     private static String extractLastDate(String line) {
-        String lastDate = null;
-        Matcher matcher = DATE_PATTERN.matcher(line);
-        while (matcher.find()) {
-            lastDate = matcher.group();
+        long lastSpan = FixedPatterns.NO_MATCH;
+        long span = FixedPatterns.findWeekDate(line, 0, line.length(), 0);
+        while (span != FixedPatterns.NO_MATCH) {
+            lastSpan = span;
+            span = FixedPatterns.findWeekDate(line, 0, line.length(), FixedPatterns.end(span));
         }
-        return lastDate;
+        return lastSpan != FixedPatterns.NO_MATCH ? line.substring(FixedPatterns.start(lastSpan), FixedPatterns.end(lastSpan)) : null;
     }
 
     /**
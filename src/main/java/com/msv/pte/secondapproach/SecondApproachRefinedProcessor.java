@@ -1,8 +1,12 @@
 package com.msv.pte.secondapproach;
 
 import com.msv.pte.database.DeviceModels;
+import com.msv.pte.parser.DateTransformCache;
+import com.msv.pte.parser.FixedPatterns;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Refined processor for the second approach.
@@ -11,11 +15,13 @@ import java.util.List;
  */
 public class SecondApproachRefinedProcessor {
 
-    private static final String AB_REGEX = "(144|145)\\d{6,8}";
-    private static final String DATE_REGEX = "\\d{1,2}\\.\\d{4}";
     private static final String[] SPECIAL_TOKENS = {
             "auslauf", "auslauf*", "*auslauf", "²", "Neuanlauf"
     };
+    // Texts with at least this many lines are tokenized with a parallel stream.
+    private static final int PARALLEL_LINE_THRESHOLD = 2_000;
+    private static final DateTransformCache FOUR_DIGIT_DATES = new DateTransformCache(
+            SecondApproachRefinedProcessor::computeDateToFourDigits, DateTransformCache.DEFAULT_CAPACITY);
 
     public static class ResultRow {
         public String vertragsNummer;
@@ -24,33 +30,69 @@ public class SecondApproachRefinedProcessor {
         public String datum;
     }
 
+    /** Receives the fields of each result row. */
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(String vertragsNummer, String modellBezeichnung, String abNummer, String datum);
+    }
+
+    /** Meaning of a token; checked in this order, the first match wins. */
+    private enum TokenKind { AB, DATE, MODEL, OTHER }
+
+    private record Token(String text, TokenKind kind) {
+    }
+
     /**
      * Parses the PDF text line by line and returns a list of result rows.
+     * Tokens are classified per line (in parallel for long texts); the AB number, contract and
+     * model buffer are then carried across lines in a single sequential pass.
      *
      * @param pdfText Full text extracted from a PDF.
      * @return List of parsed result rows.
      */
     public static List<ResultRow> parseText(String pdfText) {
         List<ResultRow> resultRows = new ArrayList<>();
+        parseText(pdfText, (contract, model, ab, date) -> {
+            ResultRow row = new ResultRow();
+            row.vertragsNummer = contract;
+            row.modellBezeichnung = model;
+            row.abNummer = ab;
+            row.datum = date;
+            resultRows.add(row);
+        });
+        return resultRows;
+    }
+
+    /**
+     * Parses the PDF text like {@link #parseText(String)} but hands every row to the handler
+     * instead of collecting them.
+     *
+     * @param pdfText Full text extracted from a PDF.
+     * @param handler Receives the rows in document order.
+     */
+    public static void parseText(String pdfText, RowHandler handler) {
+        String[] lines = pdfText.split("\\r?\\n");
+        Stream<String> lineStream = Arrays.stream(lines);
+        if (lines.length >= PARALLEL_LINE_THRESHOLD) {
+            lineStream = lineStream.parallel();
+        }
+        List<List<Token>> tokenizedLines = lineStream.map(SecondApproachRefinedProcessor::tokenizeLine).toList();
+
         String currentAB = null;
         String currentContract = null;
         List<String> modelsBuffer = new ArrayList<>();
 
-        String[] lines = pdfText.split("\\r?\\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            List<String> tokens = mergeTokens(line);
+        for (List<Token> tokens : tokenizedLines) {
             String finalDate = null;
             int i = 0;
             while (i < tokens.size()) {
-                String token = tokens.get(i);
-                if (token.matches(AB_REGEX)) {
-                    flushBuffer(resultRows, modelsBuffer, currentContract, currentAB, null);
+                Token token = tokens.get(i);
+                if (token.kind() == TokenKind.AB) {
+                    flushBuffer(handler, modelsBuffer, currentContract, currentAB, null);
                     modelsBuffer.clear();
-                    currentAB = token;
+                    currentAB = token.text();
                     if (i + 1 < tokens.size()) {
-                        String potentialContract = tokens.get(i + 1);
+                        String potentialContract = tokens.get(i + 1).text();
                         if (isValidContract(potentialContract)) {
                             currentContract = potentialContract;
                             i += 2;
@@ -61,20 +103,42 @@ public class SecondApproachRefinedProcessor {
                     } else {
                         currentContract = null;
                     }
-                } else if (isDateOrSpecial(token)) {
-                    finalDate = token;
-                } else if (isKnownModel(token)) {
-                    modelsBuffer.add(token);
+                } else if (token.kind() == TokenKind.DATE) {
+                    finalDate = token.text();
+                } else if (token.kind() == TokenKind.MODEL) {
+                    modelsBuffer.add(token.text());
                 }
                 i++;
             }
             if (finalDate != null) {
-                flushBuffer(resultRows, modelsBuffer, currentContract, currentAB, finalDate);
+                flushBuffer(handler, modelsBuffer, currentContract, currentAB, finalDate);
                 modelsBuffer.clear();
             }
         }
-        flushBuffer(resultRows, modelsBuffer, currentContract, currentAB, null);
-        return resultRows;
+        flushBuffer(handler, modelsBuffer, currentContract, currentAB, null);
+    }
+
+    // Splits and classifies the tokens of one line; empty lines yield no tokens.
+    private static List<Token> tokenizeLine(String line) {
+        line = line.trim();
+        if (line.isEmpty()) {
+            return List.of();
+        }
+        List<Token> tokens = new ArrayList<>();
+        for (String token : mergeTokens(line)) {
+            TokenKind kind;
+            if (FixedPatterns.isConfirmationNumber(token)) {
+                kind = TokenKind.AB;
+            } else if (isDateOrSpecial(token)) {
+                kind = TokenKind.DATE;
+            } else if (isKnownModel(token)) {
+                kind = TokenKind.MODEL;
+            } else {
+                kind = TokenKind.OTHER;
+            }
+            tokens.add(new Token(token, kind));
+        }
+        return tokens;
     }
 
     // Merges adjacent tokens where applicable.
@@ -84,7 +148,7 @@ public class SecondApproachRefinedProcessor {
         int i = 0;
         while (i < rawTokens.length) {
             String token = rawTokens[i];
-            if (token.equalsIgnoreCase("KW") && i + 1 < rawTokens.length && rawTokens[i + 1].matches(DATE_REGEX)) {
+            if (token.equalsIgnoreCase("KW") && i + 1 < rawTokens.length && FixedPatterns.isWeekDate(rawTokens[i + 1])) {
                 merged.add("KW " + rawTokens[i + 1]);
                 i += 2;
                 continue;
@@ -101,7 +165,7 @@ public class SecondApproachRefinedProcessor {
     }
 
     private static boolean isDateOrSpecial(String token) {
-        if (token.matches(DATE_REGEX) || token.matches("(?i)KW\\s+" + DATE_REGEX)) {
+        if (FixedPatterns.isWeekDate(token) || FixedPatterns.isCalendarWeek(token)) {
             return true;
         }
         String lower = token.toLowerCase();
@@ -113,15 +177,10 @@ public class SecondApproachRefinedProcessor {
         return false;
     }
 
-    private static void flushBuffer(List<ResultRow> resultRows, List<String> buffer,
+    private static void flushBuffer(RowHandler handler, List<String> buffer,
                                     String contract, String ab, String date) {
         for (String model : buffer) {
-            ResultRow row = new ResultRow();
-            row.vertragsNummer = contract;
-            row.modellBezeichnung = model;
-            row.abNummer = ab;
-            row.datum = date;
-            resultRows.add(row);
+            handler.onRow(contract, model, ab, date);
         }
     }
 
@@ -142,15 +201,21 @@ public class SecondApproachRefinedProcessor {
     /**
      * Transforms a date string (e.g. "KW 05.2024" or "05.2024") into "0524" format.
      *
+     * Results are memoized, so a recurring date costs one hash lookup.
+     *
      * @param dateValue The input date string.
      * @return The transformed date string.
      */
     public static String transformDateToFourDigits(String dateValue) {
+        return FOUR_DIGIT_DATES.get(dateValue);
+    }
+
+    private static String computeDateToFourDigits(String dateValue) {
         String trimmed = dateValue.trim();
         if (trimmed.toLowerCase().startsWith("kw ")) {
             trimmed = trimmed.substring(3).trim();
         }
-        if (trimmed.matches("\\d{1,2}\\.\\d{4}")) {
+        if (FixedPatterns.isWeekDate(trimmed)) {
             String[] parts = trimmed.split("\\.");
             if (parts.length == 2) {
                 String week = parts[0];
@@ -0,0 +1,87 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.parser.FixedPatterns;
+import com.msv.pte.tools.PatternPairs.PatternPair;
+
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+/**
+ * Micro-benchmark of the fixed extraction patterns: {@code java.util.regex} against the
+ * automata of {@link FixedPatterns} on typical lines of order confirmations and Auftragsinfo lists.
+ * <p>
+ * Usage: {@code PatternBenchmark [rounds]}. Every pattern is first checked to find the same match
+ * on every line with both implementations, then both are warmed up and timed. The table shows the
+ * nanoseconds per line and the speedup of the automaton.
+ */
+public final class PatternBenchmark {
+
+    private static final int DEFAULT_ROUNDS = 20_000;
+
+    // Typical lines: confirmation header, position lines, date lines, Auftragsinfo rows and noise.
+    private static final String[] LINES = {
+            "Auftragsbestaetigung Nr. 144123450 vom 12.01.2024 Seite 1 von 3",
+            "Bestellung AL1204 vom 01.02.2024 Ihr Zeichen: Herr Mueller",
+            "Pos. Artikel Bezeichnung Menge Einzelpreis Gesamtpreis",
+            "010 KG39EALCA Kuehl-Gefrier-Kombination Stk 1 849,00 EUR",
+            "Wunschliefertermin: 16.10.2024",
+            "020 HBD-PROTEC-6 Zubehoer Stk 2 39,90 EUR",
+            "Woche 41.2025 Lieferung frei Verwendungsstelle",
+            "030 SMV4EAX24E Geschirrspueler vollintegriert Stk 1 619,00 EUR",
+            "Artikel auslauf ersatzlos",
+            "040 FOO123 Sonderposition Stk 1 0,00 EUR",
+            "Lieferanschrift: Musterstrasse 12, 12345 Musterstadt",
+            "1451234501 BD121 HBA510BA3 KW 33.2025",
+            "1451234502 BD122 KG39EALCA KW 14.2025",
+            "1451234500 BD120 SMV4EAX24E auslauf",
+    };
+
+    // Sink for the match results, so the timed loops cannot be optimized away.
+    private static long checksum;
+
+    private PatternBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+        for (PatternPair pair : PatternPairs.ALL) {
+            for (String line : LINES) {
+                if (pair.firstRegexMatch(line) != pair.firstAutomatonMatch(line)) {
+                    throw new IllegalStateException(pair.name() + " differs on line: " + line);
+                }
+            }
+        }
+        System.out.println("[INFO] " + LINES.length + " lines, " + rounds + " rounds per pattern");
+        System.out.printf(Locale.ROOT, "%-28s %14s %14s %9s%n", "Pattern", "regex ns/line", "DFA ns/line", "speedup");
+        double regexTotal = 0;
+        double automatonTotal = 0;
+        for (PatternPair pair : PatternPairs.ALL) {
+            nanosPerLine(pair::firstRegexMatch, rounds / 5);
+            nanosPerLine(pair::firstAutomatonMatch, rounds / 5);
+            double regex = nanosPerLine(pair::firstRegexMatch, rounds);
+            double automaton = nanosPerLine(pair::firstAutomatonMatch, rounds);
+            regexTotal += regex;
+            automatonTotal += automaton;
+            printRow(pair.name(), regex, automaton);
+        }
+        printRow("all patterns", regexTotal, automatonTotal);
+        System.out.println("[INFO] Checksum " + checksum);
+    }
+
+    private static double nanosPerLine(ToLongFunction<String> matcher, int rounds) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String line : LINES) {
+                sum += matcher.applyAsLong(line);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        checksum += sum;
+        return elapsed / ((double) rounds * LINES.length);
+    }
+
+    private static void printRow(String name, double regex, double automaton) {
+        System.out.printf(Locale.ROOT, "%-28s %14.1f %14.1f %8.1fx%n", name, regex, automaton, regex / automaton);
+    }
+}
@@ -0,0 +1,82 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.parser.FixedPatterns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The fixed extraction patterns as regular expressions, each paired with its automaton in
+ * {@link FixedPatterns}. The regular expressions are the reference the automata are checked and
+ * measured against.
+ */
+final class PatternPairs {
+
+    /** Finds the next match of an automaton at or after start. */
+    @FunctionalInterface
+    interface SpanFinder {
+        long find(String text, int start);
+    }
+
+    /**
+     * A fixed pattern in both implementations.
+     *
+     * @param name      Name of the pattern.
+     * @param pattern   The regular expression.
+     * @param group     Group of the regular expression the automaton reports.
+     * @param anchored  Whether the pattern only matches at the start of the text.
+     * @param automaton The automaton.
+     */
+    record PatternPair(String name, Pattern pattern, int group, boolean anchored, SpanFinder automaton) {
+
+        /** @return Span of the first match of the regular expression, or {@link FixedPatterns#NO_MATCH}. */
+        long firstRegexMatch(String text) {
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? (long) matcher.start(group) << 32 | matcher.end(group) : FixedPatterns.NO_MATCH;
+        }
+
+        /** @return Span of the first match of the automaton, or {@link FixedPatterns#NO_MATCH}. */
+        long firstAutomatonMatch(String text) {
+            return automaton.find(text, 0);
+        }
+
+        /** @return All matches of the regular expression as "start-end". */
+        List<String> regexMatches(String text) {
+            List<String> matches = new ArrayList<>();
+            Matcher matcher = pattern.matcher(text);
+            while (matcher.find()) {
+                matches.add(matcher.start(group) + "-" + matcher.end(group));
+            }
+            return matches;
+        }
+
+        /** @return All matches of the automaton as "start-end". */
+        List<String> automatonMatches(String text) {
+            List<String> matches = new ArrayList<>();
+            long span = automaton.find(text, 0);
+            while (span != FixedPatterns.NO_MATCH) {
+                matches.add(FixedPatterns.start(span) + "-" + FixedPatterns.end(span));
+                span = anchored ? FixedPatterns.NO_MATCH : automaton.find(text, FixedPatterns.end(span));
+            }
+            return matches;
+        }
+    }
+
+    static final List<PatternPair> ALL = List.of(
+            new PatternPair("ORDER_PATTERN", Pattern.compile("(?i)(Bestellung|Bestelltext)\\s+(\\S{5,6})"), 2, false,
+                    (text, start) -> FixedPatterns.findOrderNumber(text, start, text.length())),
+            new PatternPair("CONFIRMATION_PATTERN", Pattern.compile("\\b(144|145)\\d{6,8}\\b"), 0, false,
+                    (text, start) -> FixedPatterns.findConfirmationNumber(text, 0, text.length(), start)),
+            new PatternPair("POSITION_PATTERN", Pattern.compile("^\\s*(\\d{3})\\b"), 1, true,
+                    (text, start) -> FixedPatterns.findPositionNumber(text, start, text.length())),
+            new PatternPair("DATE_PATTERN (desired date)", Pattern.compile(
+                    "(?i)(?:WUNSCHLIEFERTERMIN|WOCHE)\\s*:?\\s*(\\d{1,2}\\.\\d{1,2}\\.\\d{4}|\\d{1,2}\\.\\d{4})"), 1, false,
+                    (text, start) -> FixedPatterns.findDesiredDate(text, start, text.length())),
+            new PatternPair("DATE_PATTERN (week date)", Pattern.compile("\\b\\d{1,2}\\.\\d{4}\\b"), 0, false,
+                    (text, start) -> FixedPatterns.findWeekDate(text, 0, text.length(), start)));
+
+    private PatternPairs() {
+    }
+}
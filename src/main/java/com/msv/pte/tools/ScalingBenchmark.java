@@ -0,0 +1,333 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.core.PdfToExcelController;
+import com.msv.pte.core.PipelineMetrics;
+import com.msv.pte.core.ProcessingJob;
+import com.msv.pte.core.ProcessingOptions;
+import com.msv.pte.export.OutputFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end scaling benchmark of {@link PdfToExcelController#process}: runs the whole pipeline
+ * over generated corpora of several sizes at several thread counts and reports where it stops
+ * scaling.
+ * <p>
+ * Every data point runs in its own JVM, started with the options of the benchmark JVM and
+ * {@code -XX:ActiveProcessorCount} set to the thread count, so heap, JIT and GC state do not carry
+ * over and the internal pools are bounded as well. A run uses parallel loading with as many parser
+ * and writer threads. Per run it records wall time, CPU time and utilisation, GC time and the peak
+ * resident set size (Linux only). The results are printed as a table and appended to a CSV report
+ * with the label, date, Java version and core count, so runs of several releases can be compared.
+ * <p>
+ * The corpora are written by {@link SyntheticCorpusGenerator} into the work folder once and reused
+ * by later runs.
+ */
+public final class ScalingBenchmark {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: [options]",
+            "  --sizes <n,...>        Corpus sizes in PDFs (default: 1000,10000,100000)",
+            "  --threads <n,...>      Thread counts (default: 1, 2, 4, ... up to all processors)",
+            "  --work <folder>        Folder for corpora and outputs (default: target/scaling-benchmark)",
+            "  --format <name>        Output format of the runs (default: csv)",
+            "  --report <file>        CSV report the results are appended to (default: scaling-benchmark.csv)",
+            "  --label <text>         Label of the results in the report, e.g. the release (default: dev)",
+            "  --seed <n>             Seed of the generated corpora (default: 1)");
+
+    private static final String RESULT_PREFIX = "RESULT ";
+    private static final String REPORT_HEADER = "label,date,java,cores,files,threads,pdfs,pages,rows,"
+            + "wall_s,cpu_s,cpu_utilisation,gc_s,peak_rss_mb,pdfs_per_s,speedup";
+
+    /** Measurements of one run. */
+    record Result(int files, int threads, long pdfs, long pages, long rows, long wallNanos, long cpuNanos,
+                  long gcMillis, long peakRssKb) {
+
+        /** @return Share of the thread count kept busy: CPU time over wall time and threads. */
+        double cpuUtilisation() {
+            return (double) cpuNanos / wallNanos / threads;
+        }
+
+        double pdfsPerSecond() {
+            return pdfs * 1e9 / wallNanos;
+        }
+    }
+
+    private ScalingBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--run")) {
+            runChild(Paths.get(args[1]), Integer.parseInt(args[2]), args[3], Paths.get(args[4]));
+            return;
+        }
+        List<Integer> sizes = List.of(1000, 10_000, 100_000);
+        List<Integer> threads = defaultThreadCounts();
+        Path work = Paths.get("target/scaling-benchmark");
+        OutputFormat format = OutputFormat.CSV;
+        Path report = Paths.get("scaling-benchmark.csv");
+        String label = "dev";
+        long seed = 1;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--sizes" -> sizes = parseList(value(args, ++i));
+                    case "--threads" -> threads = parseList(value(args, ++i));
+                    case "--work" -> work = Paths.get(value(args, ++i));
+                    case "--format" -> format = OutputFormat.fromName(value(args, ++i));
+                    case "--report" -> report = Paths.get(value(args, ++i));
+                    case "--label" -> label = value(args, ++i);
+                    case "--seed" -> seed = Long.parseLong(value(args, ++i));
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("[ERROR] " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        System.out.println("[INFO] Scaling benchmark: sizes " + sizes + ", threads " + threads
+                + ", " + Runtime.getRuntime().availableProcessors() + " processors");
+        List<Result> results = new ArrayList<>();
+        for (int size : sizes) {
+            Path corpus = prepareCorpus(work, size, seed);
+            for (int threadCount : threads) {
+                Path output = work.resolve("output-" + size + "-" + threadCount + "." + format.getExtension());
+                Result result = runForked(corpus, size, threadCount, format, output);
+                Files.deleteIfExists(output);
+                if (result == null) {
+                    System.err.println("[ERROR] Run with " + size + " PDFs and " + threadCount + " threads failed");
+                    System.exit(1);
+                }
+                System.out.printf(Locale.ROOT, "[INFO] %d PDFs, %d threads: %.1f s%n",
+                        size, threadCount, result.wallNanos() / 1e9);
+                results.add(result);
+            }
+        }
+        printTable(results);
+        appendReport(report, label, results);
+        System.out.println("[INFO] Results appended to " + report);
+    }
+
+    /** Generates the corpus of a size unless the work folder already holds it. */
+    private static Path prepareCorpus(Path work, int size, long seed) throws IOException {
+        Path corpus = work.resolve("corpus-" + size + "-seed" + seed);
+        if (countPdfs(corpus) == size) {
+            System.out.println("[INFO] Reusing corpus " + corpus);
+            return corpus;
+        }
+        SyntheticCorpusGenerator.Settings settings = new SyntheticCorpusGenerator.Settings();
+        settings.files = size;
+        settings.seed = seed;
+        SyntheticCorpusGenerator.generate(corpus, settings);
+        return corpus;
+    }
+
+    private static int countPdfs(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return -1;
+        }
+        int count = 0;
+        try (DirectoryStream<Path> pdfs = Files.newDirectoryStream(folder, "*.pdf")) {
+            for (Path ignored : pdfs) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Runs one data point in a new JVM and returns its result, or null if the run failed. */
+    private static Result runForked(Path corpus, int files, int threads, OutputFormat format, Path output)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!argument.startsWith("-XX:ActiveProcessorCount") && !argument.startsWith("-agentlib")) {
+                command.add(argument);
+            }
+        }
+        command.add("-XX:ActiveProcessorCount=" + threads);
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null) {
+            command.add("--module-path");
+            command.add(modulePath);
+            command.add("--module");
+            command.add(ScalingBenchmark.class.getModule().getName() + "/" + ScalingBenchmark.class.getName());
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ScalingBenchmark.class.getName());
+        }
+        command.add("--run");
+        command.add(corpus.toString());
+        command.add(String.valueOf(threads));
+        command.add(format.name());
+        command.add(output.toString());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Result result = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    String[] fields = line.substring(RESULT_PREFIX.length()).split(" ");
+                    result = new Result(files, threads, Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                            Long.parseLong(fields[2]), Long.parseLong(fields[3]), Long.parseLong(fields[4]),
+                            Long.parseLong(fields[5]), Long.parseLong(fields[6]));
+                } else if (line.startsWith("[ERROR]") || line.startsWith("[WARN]")) {
+                    System.err.println(line);
+                }
+            }
+        }
+        return process.waitFor() == 0 ? result : null;
+    }
+
+    /** Child side: runs the pipeline once and prints the measurements as a result line. */
+    private static void runChild(Path corpus, int threads, String format, Path output) {
+        ProcessingOptions options = new ProcessingOptions();
+        options.setDetectLayout(true);
+        options.setOutputFormat(OutputFormat.fromName(format));
+        options.setParallelLoading(true);
+        options.setParserThreads(threads);
+        options.setWriterThreads(threads);
+        ProcessingJob job = new ProcessingJob();
+        AtomicInteger errors = new AtomicInteger();
+
+        long gcBefore = gcMillis();
+        long cpuBefore = cpuNanos();
+        long start = System.nanoTime();
+        new PdfToExcelController().process(corpus.toString(), output.toString(), options, job,
+                progress -> { },
+                message -> {
+                    if (message.startsWith("[ERROR]")) {
+                        errors.incrementAndGet();
+                        System.err.println(message);
+                    }
+                });
+        long wallNanos = System.nanoTime() - start;
+        long cpuNanos = cpuNanos() - cpuBefore;
+        long gcMillis = gcMillis() - gcBefore;
+
+        PipelineMetrics.Snapshot snapshot = job.getMetrics().snapshot();
+        System.out.println(RESULT_PREFIX + snapshot.files() + " " + snapshot.pages() + " " + snapshot.rows() + " "
+                + wallNanos + " " + cpuNanos + " " + gcMillis + " " + peakRssKb());
+        System.exit(errors.get() == 0 ? 0 : 1);
+    }
+
+    private static long cpuNanos() {
+        return ProcessHandle.current().info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    /** @return Peak resident set size of this process in KB, or -1 where /proc is not available. */
+    private static long peakRssKb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring("VmHWM:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux; peak RSS is reported as unknown.
+        }
+        return -1;
+    }
+
+    private static void printTable(List<Result> results) {
+        System.out.printf(Locale.ROOT, "%8s %7s %9s %9s %8s %8s %6s %8s %9s %8s%n",
+                "PDFs", "threads", "wall s", "PDFs/s", "speedup", "CPU s", "util", "GC s", "peak MB", "rows");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%8d %7d %9.1f %9.1f %7.2fx %8.1f %5.0f%% %8.2f %9s %8d%n",
+                    result.files(), result.threads(), result.wallNanos() / 1e9, result.pdfsPerSecond(),
+                    speedup(results, result), result.cpuNanos() / 1e9, result.cpuUtilisation() * 100,
+                    result.gcMillis() / 1e3, result.peakRssKb() < 0 ? "n/a" : String.valueOf(result.peakRssKb() / 1024),
+                    result.rows());
+        }
+    }
+
+    private static void appendReport(Path report, String label, List<Result> results) throws IOException {
+        boolean newReport = !Files.exists(report) || Files.size(report) == 0;
+        try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newReport) {
+                writer.write(REPORT_HEADER + System.lineSeparator());
+            }
+            String prefix = String.join(",", label.replace(',', ' '), LocalDate.now().toString(),
+                    System.getProperty("java.version"), String.valueOf(Runtime.getRuntime().availableProcessors()));
+            for (Result result : results) {
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%s,%.2f,%.3f%n",
+                        prefix, result.files(), result.threads(), result.pdfs(), result.pages(), result.rows(),
+                        result.wallNanos() / 1e9, result.cpuNanos() / 1e9, result.cpuUtilisation(),
+                        result.gcMillis() / 1e3, result.peakRssKb() < 0 ? "" : String.valueOf(result.peakRssKb() / 1024),
+                        result.pdfsPerSecond(), speedup(results, result)));
+            }
+        }
+    }
+
+    /** @return Throughput of a run relative to the run with the fewest threads on the same corpus. */
+    private static double speedup(List<Result> results, Result result) {
+        Result base = result;
+        for (Result candidate : results) {
+            if (candidate.files() == result.files() && candidate.threads() < base.threads()) {
+                base = candidate;
+            }
+        }
+        return (double) base.wallNanos() / result.wallNanos();
+    }
+
+    /** @return 1, 2, 4, ... and the number of processors. */
+    private static List<Integer> defaultThreadCounts() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int count = 1; count < processors; count *= 2) {
+            counts.add(count);
+        }
+        counts.add(processors);
+        return counts;
+    }
+
+    private static List<Integer> parseList(String value) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : value.split(",")) {
+            int number = Integer.parseInt(part.trim());
+            if (number < 1) {
+                throw new IllegalArgumentException("Values must be at least 1: " + value);
+            }
+            values.add(number);
+        }
+        return values;
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
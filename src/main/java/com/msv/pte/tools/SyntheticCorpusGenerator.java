@@ -0,0 +1,342 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.database.BranchNumbers;
+import com.msv.pte.database.DeviceModels;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Writes a folder of synthetic order confirmations and Auftragsinfo lists for load tests of
+ * {@code processPdfFolder}, without any customer data.
+ * <p>
+ * The documents follow the layouts of the golden corpus of the parser tests: confirmations with an AB number, an
+ * order number and position lines with models, accessories and desired dates; Auftragsinfo lists
+ * with one AB number, contract number, models and delivery week per line. Every file is built from
+ * its own seed derived from {@code --seed}, so a corpus can be regenerated identically, in any
+ * number of threads.
+ */
+public final class SyntheticCorpusGenerator {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: --output <folder> [options]",
+            "  --files <n>                    Number of PDFs (default: 1000)",
+            "  --auftragsinfo-share <percent> Share of Auftragsinfo lists (default: 30)",
+            "  --pages <min>[-<max>]          Pages per PDF (default: 1-5)",
+            "  --positions-per-page <n>       Positions per confirmation page (default: 12, at most "
+                    + maxPositionsPerPage() + ")",
+            "  --rows-per-page <n>            Lines per Auftragsinfo page (default: 50, at most "
+                    + (SyntheticPdfWriter.LINES_PER_PAGE - 1) + ")",
+            "  --models <n>                   Distinct models drawn from the model list (default: all)",
+            "  --unknown-models <percent>     Share of positions with a model not in the list (default: 5)",
+            "  --branches <code,...>          Branch prefixes of order and contract numbers (default: all)",
+            "  --noise <percent>              Chance of a noise line after each line (default: 10)",
+            "  --noise-tokens <text|text...>  Noise lines, separated by '|'",
+            "  --seed <n>                     Seed of the corpus (default: 1)",
+            "  --threads <n>                  Files written in parallel (default: all processors)");
+
+    // Noise that appears in real documents but does not match any extraction pattern.
+    private static final String[] DEFAULT_NOISE = {
+            "Uebertrag", "Zwischensumme netto", "Lieferanschrift: Musterstrasse 12, Musterstadt",
+            "Ihr Ansprechpartner: Innendienst", "Zahlbar innerhalb von 30 Tagen ohne Abzug",
+            "Es gelten unsere Allgemeinen Geschaeftsbedingungen", "Mehrwertsteuer 19 %"};
+    private static final String[] KEYWORDS = {"auslauf", "ersatzlos", "neuanlauf"};
+    // Lines of a confirmation position: position line, accessory line, date line.
+    private static final int MAX_POSITION_LINES = 3;
+    // Header lines of the first confirmation page.
+    private static final int HEADER_LINES = 3;
+
+    /** Settings of a corpus. */
+    static final class Settings {
+        int files = 1000;
+        int auftragsinfoShare = 30;
+        int minPages = 1;
+        int maxPages = 5;
+        int positionsPerPage = 12;
+        int rowsPerPage = 50;
+        int models;
+        int unknownModels = 5;
+        String[] branches = BranchNumbers.BRANCH_NUMBERS;
+        int noise = 10;
+        String[] noiseTokens = DEFAULT_NOISE;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    private SyntheticCorpusGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path output = null;
+        Settings settings = new Settings();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--output" -> output = Paths.get(value(args, ++i));
+                    case "--files" -> settings.files = Integer.parseInt(value(args, ++i));
+                    case "--auftragsinfo-share" -> settings.auftragsinfoShare = Integer.parseInt(value(args, ++i));
+                    case "--pages" -> {
+                        String[] range = value(args, ++i).split("-", 2);
+                        settings.minPages = Integer.parseInt(range[0]);
+                        settings.maxPages = range.length > 1 ? Integer.parseInt(range[1]) : settings.minPages;
+                    }
+                    case "--positions-per-page" -> settings.positionsPerPage = Integer.parseInt(value(args, ++i));
+                    case "--rows-per-page" -> settings.rowsPerPage = Integer.parseInt(value(args, ++i));
+                    case "--models" -> settings.models = Integer.parseInt(value(args, ++i));
+                    case "--unknown-models" -> settings.unknownModels = Integer.parseInt(value(args, ++i));
+                    case "--branches" -> settings.branches = value(args, ++i).split(",");
+                    case "--noise" -> settings.noise = Integer.parseInt(value(args, ++i));
+                    case "--noise-tokens" -> settings.noiseTokens = value(args, ++i).split("\\|");
+                    case "--seed" -> settings.seed = Long.parseLong(value(args, ++i));
+                    case "--threads" -> settings.threads = Integer.parseInt(value(args, ++i));
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("--output is required");
+            }
+            validate(settings);
+        } catch (IllegalArgumentException e) {
+            System.err.println("[ERROR] " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        generate(output, settings);
+    }
+
+    /**
+     * Writes the corpus.
+     *
+     * @param output   Folder the PDFs are written to; created if missing.
+     * @param settings Settings of the corpus.
+     * @throws IOException if a file cannot be written.
+     */
+    static void generate(Path output, Settings settings) throws IOException {
+        Files.createDirectories(output);
+        List<String> models = modelPool(settings);
+        AtomicLong pages = new AtomicLong();
+        AtomicLong rows = new AtomicLong();
+        long start = System.nanoTime();
+        String nameFormat = "%s_%0" + Math.max(5, String.valueOf(settings.files).length()) + "d.pdf";
+        Runnable writeAll = () -> IntStream.range(0, settings.files).parallel().forEach(index -> {
+            Random random = new Random(settings.seed * 1_000_003L + index);
+            boolean auftragsinfo = random.nextInt(100) < settings.auftragsinfoShare;
+            int pageCount = settings.minPages + random.nextInt(settings.maxPages - settings.minPages + 1);
+            List<List<String>> document = new ArrayList<>();
+            long documentRows = auftragsinfo
+                    ? auftragsinfo(random, settings, models, pageCount, document)
+                    : confirmation(random, settings, models, pageCount, document);
+            Path file = output.resolve(String.format(Locale.ROOT, nameFormat,
+                    auftragsinfo ? "auftragsinfo" : "confirmation", index));
+            try {
+                SyntheticPdfWriter.write(file, document);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pages.addAndGet(pageCount);
+            rows.addAndGet(documentRows);
+        });
+        try {
+            // A dedicated pool limits the threads; parallel streams run inside the pool they are started from.
+            ForkJoinPool pool = new ForkJoinPool(settings.threads);
+            try {
+                pool.submit(writeAll).join();
+            } finally {
+                pool.shutdown();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "[INFO] Wrote %d PDFs with %d pages and %d model rows to %s in %.1f s%n",
+                settings.files, pages.get(), rows.get(), output, seconds);
+    }
+
+    private static long confirmation(Random random, Settings settings, List<String> models, int pageCount,
+                                     List<List<String>> pages) {
+        String confirmationNumber = "144" + digits(random, 7);
+        long rows = 0;
+        int position = 0;
+        for (int pageNumber = 1; pageNumber <= pageCount; pageNumber++) {
+            ConfirmationPage page = new ConfirmationPage(random, settings);
+            if (pageNumber == 1) {
+                page.add("Auftragsbestaetigung Nr. " + confirmationNumber + " vom 02.05.2024");
+                page.add("Bestellung " + branch(random, settings) + digits(random, 4)
+                        + " vom 29.04.2024 Ihr Zeichen: Einkauf");
+                page.add("Pos. Artikel Bezeichnung Menge Einzelpreis");
+            } else {
+                page.add("Auftragsbestaetigung " + confirmationNumber + " Seite " + pageNumber);
+            }
+            page.allowNoise();
+            for (int i = 0; i < settings.positionsPerPage; i++) {
+                position++;
+                String model = random.nextInt(100) < settings.unknownModels
+                        ? "SONDER" + digits(random, 3) : pick(random, models);
+                page.addWithNoise(String.format(Locale.ROOT, "%03d %s Einbaugeraet Stk %d %d,00 EUR",
+                        position * 10 % 1000, model, 1 + random.nextInt(3), 200 + random.nextInt(1800)));
+                rows++;
+                if (random.nextInt(5) == 0) {
+                    page.addWithNoise("Zubehoer: " + pick(random, models));
+                    rows++;
+                }
+                switch (random.nextInt(4)) {
+                    case 0 -> page.addWithNoise(String.format(Locale.ROOT, "Wunschliefertermin: %02d.%02d.%d",
+                            1 + random.nextInt(28), 1 + random.nextInt(12), 2024 + random.nextInt(3)));
+                    case 1 -> page.addWithNoise("Woche " + (1 + random.nextInt(52)) + "." + (2024 + random.nextInt(3)));
+                    case 2 -> page.addWithNoise("Artikel " + KEYWORDS[random.nextInt(KEYWORDS.length)]);
+                    default -> {
+                        // No desired date.
+                    }
+                }
+            }
+            pages.add(page.lines);
+        }
+        return rows;
+    }
+
+    private static long auftragsinfo(Random random, Settings settings, List<String> models, int pageCount,
+                                     List<List<String>> pages) {
+        long rows = 0;
+        String abNumber = null;
+        for (int pageNumber = 1; pageNumber <= pageCount; pageNumber++) {
+            List<String> page = new ArrayList<>();
+            page.add(pageNumber == 1 ? "Auftragsinfo" : "Auftragsinfo Seite " + pageNumber);
+            int lines = 0;
+            while (lines < settings.rowsPerPage) {
+                if (abNumber == null || random.nextInt(3) == 0) {
+                    abNumber = "145" + digits(random, 7);
+                }
+                StringBuilder line = new StringBuilder(abNumber).append(' ')
+                        .append(branch(random, settings)).append(digits(random, 3))
+                        .append(' ').append(pick(random, models));
+                rows++;
+                if (random.nextInt(6) == 0) {
+                    line.append(' ').append(pick(random, models));
+                    rows++;
+                }
+                line.append(random.nextInt(5) == 0 ? " auslauf"
+                        : " KW " + (1 + random.nextInt(52)) + "." + (2024 + random.nextInt(3)));
+                page.add(line.toString());
+                lines++;
+                if (lines < settings.rowsPerPage && random.nextInt(100) < settings.noise) {
+                    page.add(noise(random, settings));
+                    lines++;
+                }
+            }
+            pages.add(page);
+        }
+        return rows;
+    }
+
+    /**
+     * Lines of a confirmation page. Noise lines only take the lines the positions leave free, so
+     * every page holds the configured number of positions.
+     */
+    private static final class ConfirmationPage {
+        private final List<String> lines = new ArrayList<>();
+        private final Random random;
+        private final Settings settings;
+        private int spareLines;
+
+        ConfirmationPage(Random random, Settings settings) {
+            this.random = random;
+            this.settings = settings;
+        }
+
+        void add(String line) {
+            lines.add(line);
+        }
+
+        /** Called after the header: the lines not needed by the positions may take noise. */
+        void allowNoise() {
+            spareLines = SyntheticPdfWriter.LINES_PER_PAGE - lines.size() - MAX_POSITION_LINES * settings.positionsPerPage;
+        }
+
+        /** Adds a line, followed by a noise line by chance. */
+        void addWithNoise(String line) {
+            lines.add(line);
+            if (spareLines > 0 && random.nextInt(100) < settings.noise) {
+                lines.add(noise(random, settings));
+                spareLines--;
+            }
+        }
+    }
+
+    private static String noise(Random random, Settings settings) {
+        return settings.noiseTokens[random.nextInt(settings.noiseTokens.length)];
+    }
+
+    private static String branch(Random random, Settings settings) {
+        return settings.branches[random.nextInt(settings.branches.length)];
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder digits = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /** @return All models of the list, or the configured number of them drawn with the corpus seed. */
+    private static List<String> modelPool(Settings settings) {
+        List<String> models = new ArrayList<>(Arrays.asList(DeviceModels.getDeviceModels()));
+        if (settings.models > 0 && settings.models < models.size()) {
+            Collections.shuffle(models, new Random(settings.seed));
+            return new ArrayList<>(models.subList(0, settings.models));
+        }
+        return models;
+    }
+
+    private static void validate(Settings settings) {
+        if (settings.files < 1 || settings.threads < 1) {
+            throw new IllegalArgumentException("--files and --threads must be at least 1");
+        }
+        if (settings.minPages < 1 || settings.maxPages < settings.minPages) {
+            throw new IllegalArgumentException("Invalid page range: " + settings.minPages + "-" + settings.maxPages);
+        }
+        if (settings.positionsPerPage < 1 || settings.positionsPerPage > maxPositionsPerPage()) {
+            throw new IllegalArgumentException("--positions-per-page must be between 1 and " + maxPositionsPerPage());
+        }
+        if (settings.rowsPerPage < 1 || settings.rowsPerPage >= SyntheticPdfWriter.LINES_PER_PAGE) {
+            throw new IllegalArgumentException("--rows-per-page must be between 1 and "
+                    + (SyntheticPdfWriter.LINES_PER_PAGE - 1));
+        }
+        if (settings.noiseTokens.length == 0 || settings.branches.length == 0) {
+            throw new IllegalArgumentException("--noise-tokens and --branches must not be empty");
+        }
+        for (int percent : new int[]{settings.auftragsinfoShare, settings.unknownModels, settings.noise}) {
+            if (percent < 0 || percent > 100) {
+                throw new IllegalArgumentException("Percentages must be between 0 and 100: " + percent);
+            }
+        }
+    }
+
+    /** @return Positions that fit on a confirmation page below the header. */
+    private static int maxPositionsPerPage() {
+        return (SyntheticPdfWriter.LINES_PER_PAGE - HEADER_LINES) / MAX_POSITION_LINES;
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
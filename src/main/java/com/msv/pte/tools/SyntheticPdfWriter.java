@@ -0,0 +1,55 @@
+package com.msv.pte.tools;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes text lines into a PDF with PDFBox, one list of lines per page. The lines come back
+ * unchanged from text extraction, so generated documents can be checked against the rows they
+ * were built from. Only characters of the WinAnsi encoding can be written.
+ */
+final class SyntheticPdfWriter {
+
+    /** Lines that fit on a page in the font size used. */
+    static final int LINES_PER_PAGE = 58;
+
+    private static final float FONT_SIZE = 10;
+    private static final float LEADING = 12;
+    private static final float LEFT_MARGIN = 40;
+    private static final float TOP = 750;
+
+    private SyntheticPdfWriter() {
+    }
+
+    /**
+     * @param file  Target file; overwritten if it exists.
+     * @param pages Lines of each page, at most {@link #LINES_PER_PAGE} per page.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(Path file, List<List<String>> pages) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (List<String> lines : pages) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(LEFT_MARGIN, TOP);
+                    for (String line : lines) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.msv.pte.ui;
+
+import javax.swing.JTextArea;
+import javax.swing.text.BadLocationException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Log model behind the log area that keeps memory and repaint cost bounded on long runs.
+ * <p>
+ * Only the last {@code maxLines} lines are kept, in a ring buffer. The text area shows the lines of
+ * that ring whose level is enabled. New lines are appended to the document and lines that fall out
+ * of the ring are cut from its start, so the document is never rebuilt while lines arrive. Changing
+ * the level filter rebuilds it from the ring, which holds at most {@code maxLines} lines. The complete
+ * log of a run is written to a file by {@link ProcessingEventBus}. All methods must be called on the EDT.
+ */
+class BoundedLogView {
+
+    /** Level of a log line, taken from its {@code [INFO]/[WARN]/[ERROR]} prefix. */
+    enum Level {
+        INFO, WARN, ERROR;
+
+        static Level of(String line) {
+            if (line.startsWith("[ERROR]")) {
+                return ERROR;
+            }
+            if (line.startsWith("[WARN]")) {
+                return WARN;
+            }
+            return INFO;
+        }
+    }
+
+    private final JTextArea textArea;
+    private final String[] lines;
+    private final Level[] levels;
+    private final Set<Level> visibleLevels = EnumSet.allOf(Level.class);
+    // Ring state: index of the oldest line and number of lines held.
+    private int head;
+    private int size;
+
+    BoundedLogView(JTextArea textArea, int maxLines) {
+        this.textArea = textArea;
+        this.lines = new String[maxLines];
+        this.levels = new Level[maxLines];
+    }
+
+    /**
+     * Appends a chunk of newline-terminated lines.
+     *
+     * @param chunk Lines to append.
+     */
+    void append(String chunk) {
+        String[] newLines = chunk.split("\n");
+        // Lines that would be evicted within this chunk are never shown.
+        int first = Math.max(0, newLines.length - lines.length);
+        StringBuilder visibleText = new StringBuilder();
+        int evictedVisible = 0;
+        for (int i = first; i < newLines.length; i++) {
+            String line = newLines[i];
+            Level level = Level.of(line);
+            if (size == lines.length) {
+                if (visibleLevels.contains(levels[head])) {
+                    evictedVisible++;
+                }
+                head = (head + 1) % lines.length;
+                size--;
+            }
+            int slot = (head + size) % lines.length;
+            lines[slot] = line;
+            levels[slot] = level;
+            size++;
+            if (visibleLevels.contains(level)) {
+                visibleText.append(line).append('\n');
+            }
+        }
+        removeFirstLines(evictedVisible);
+        if (!visibleText.isEmpty()) {
+            textArea.append(visibleText.toString());
+            textArea.setCaretPosition(textArea.getDocument().getLength());
+        }
+    }
+
+    /**
+     * Shows or hides the lines of a level and rebuilds the text from the retained lines.
+     */
+    void setLevelVisible(Level level, boolean visible) {
+        if (visible ? !visibleLevels.add(level) : !visibleLevels.remove(level)) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % lines.length;
+            if (visibleLevels.contains(levels[slot])) {
+                text.append(lines[slot]).append('\n');
+            }
+        }
+        textArea.setText(text.toString());
+        textArea.setCaretPosition(textArea.getDocument().getLength());
+    }
+
+    /** Clears the view for a new run. */
+    void clear() {
+        head = 0;
+        size = 0;
+        Arrays.fill(lines, null);
+        Arrays.fill(levels, null);
+        textArea.setText("");
+    }
+
+    private void removeFirstLines(int count) {
+        if (count == 0) {
+            return;
+        }
+        try {
+            int end = count < textArea.getLineCount()
+                    ? textArea.getLineStartOffset(count)
+                    : textArea.getDocument().getLength();
+            textArea.getDocument().remove(0, end);
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
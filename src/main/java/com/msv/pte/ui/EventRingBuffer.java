@@ -0,0 +1,89 @@
+package com.msv.pte.ui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number telling whether it is free for the producer claiming
+ * position {@code pos} ({@code sequence == pos}) or filled for the consumer
+ * ({@code sequence == pos + 1}). Producers claim positions with a CAS and never wait; when the
+ * buffer is full {@link #offer} simply returns false.
+ *
+ * @param <T> Element type.
+ */
+class EventRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    // Only touched by the consumer thread.
+    private long consumerPosition;
+
+    /**
+     * @param capacity Number of slots; rounded up to a power of two.
+     */
+    EventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        elements = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element without blocking; safe to call from any thread.
+     *
+     * @param element Element to add.
+     * @return False if the buffer is full.
+     */
+    boolean offer(T element) {
+        long position = producerPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code max} elements in insertion order; consumer thread only.
+     *
+     * @param sink Receives the removed elements.
+     * @param max  Maximum number of elements to remove.
+     * @return Number of removed elements.
+     */
+    int drain(Consumer<? super T> sink, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) consumerPosition & mask;
+            if (sequences.get(index) != consumerPosition + 1) {
+                break; // empty, or the producer of this slot has not finished writing
+            }
+            T element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, consumerPosition + mask + 1);
+            consumerPosition++;
+            sink.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+}
@@ -1,12 +1,17 @@
 package com.msv.pte.ui;
 
 import com.msv.pte.core.PdfToExcelController;
+import com.msv.pte.core.ProcessingJob;
+import com.msv.pte.core.ProcessingOptions;
+import com.msv.pte.export.OutputFormat;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Main UI frame for PDF to Excel processing.
@@ -16,14 +21,29 @@ public class PdfToExcelFrame extends JFrame {
 
     // Fixed size for labels so that text fields start at the same horizontal position
     private static final Dimension LABEL_SIZE = new Dimension(200, 30);
+    // Interval in which progress and log output are moved to the UI (about 30 frames per second).
+    private static final int UI_FRAME_MILLIS = 33;
+    // Lines kept in the log area; the complete log of a run is written next to the output file.
+    private static final int MAX_LOG_LINES = 5_000;
 
     private final JTextField pdfDirectoryField = createRoundedTextField();
     private final JTextField excelFileField = createRoundedTextField();
+    private final JComboBox<OutputFormat> outputFormatComboBox = new JComboBox<>(OutputFormat.values());
     private final JCheckBox useAuftragsinfoCheckBox = new JCheckBox("Zweite Verarbeitungsart (Auftragsinfo) verwenden");
+    private final JCheckBox appendCheckBox = new JCheckBox("An bestehende Ausgabedatei anhängen");
+    private final JCheckBox deduplicateCheckBox = new JCheckBox("Duplikate entfernen (neueste PDF gewinnt)");
+    private final JCheckBox recursiveCheckBox = new JCheckBox("Unterordner einbeziehen");
+    private final JCheckBox archivesCheckBox = new JCheckBox("ZIP-Archive einlesen");
+    private final JCheckBox resumeCheckBox = new JCheckBox("Unterbrochenen Lauf fortsetzen");
+    private final JCheckBox detectLayoutCheckBox = new JCheckBox("Dokumenttyp je PDF automatisch erkennen");
+    private final JCheckBox parallelCheckBox = new JCheckBox("PDFs parallel einlesen und parsen");
     private final PdfToExcelController controller = new PdfToExcelController();
     private final RoundedProgressBar progressBar = new RoundedProgressBar(0, 100);
+    private final ThroughputPanel throughputPanel = new ThroughputPanel();
     private final RoundedTextArea logArea = new RoundedTextArea(8, 40);
+    private final BoundedLogView logView = new BoundedLogView(logArea, MAX_LOG_LINES);
     private final JButton processButton = createRoundedButton("Verarbeiten");
+    private final JButton cancelButton = createRoundedButton("Abbrechen");
 
     public PdfToExcelFrame() {
         super("PDF to Excel Processor");
@@ -33,7 +53,7 @@ public class PdfToExcelFrame extends JFrame {
 
     private void initializeFrame() {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(800, 500); // Increased height to accommodate log area and progress bar
+        setSize(800, 805); // Increased height to accommodate log area, progress bar and format selection
         setResizable(false);
         setLayout(new GridBagLayout());
         getContentPane().setBackground(new Color(40, 40, 40));
@@ -70,37 +90,105 @@ public class PdfToExcelFrame extends JFrame {
         gbc.weightx = 0;
         addComponent(excelButton, gbc, 4, 1, 1);
 
-        // Checkbox for processing method
-        gbc.gridy = 2;
+        // Output format selection
+        JLabel formatLabel = createLabel("Ausgabeformat:");
+        formatLabel.setPreferredSize(LABEL_SIZE);
+        outputFormatComboBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        outputFormatComboBox.addActionListener(e -> adjustOutputExtension());
+        gbc.weightx = 0;
+        addComponent(formatLabel, gbc, 0, 2, 1);
+        gbc.weightx = 1;
+        addComponent(outputFormatComboBox, gbc, 1, 2, 3);
+
+        // Checkboxes for processing method and append mode
+        gbc.gridy = 3;
         gbc.gridx = 0;
-        gbc.gridwidth = 5;
-        useAuftragsinfoCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        useAuftragsinfoCheckBox.setForeground(Color.WHITE);
-        useAuftragsinfoCheckBox.setBackground(new Color(40, 40, 40));
+        gbc.gridwidth = 3;
+        styleCheckBox(useAuftragsinfoCheckBox);
         add(useAuftragsinfoCheckBox, gbc);
+        gbc.gridx = 3;
+        gbc.gridwidth = 2;
+        styleCheckBox(appendCheckBox);
+        add(appendCheckBox, gbc);
+        gbc.gridy = 4;
+        gbc.gridx = 0;
+        gbc.gridwidth = 3;
+        styleCheckBox(deduplicateCheckBox);
+        add(deduplicateCheckBox, gbc);
+        gbc.gridx = 3;
+        gbc.gridwidth = 2;
+        styleCheckBox(recursiveCheckBox);
+        add(recursiveCheckBox, gbc);
+        gbc.gridy = 5;
+        gbc.gridx = 0;
+        gbc.gridwidth = 3;
+        styleCheckBox(archivesCheckBox);
+        add(archivesCheckBox, gbc);
+        gbc.gridx = 3;
+        gbc.gridwidth = 2;
+        styleCheckBox(resumeCheckBox);
+        add(resumeCheckBox, gbc);
+        gbc.gridy = 6;
+        gbc.gridx = 0;
+        gbc.gridwidth = 3;
+        styleCheckBox(detectLayoutCheckBox);
+        add(detectLayoutCheckBox, gbc);
+        gbc.gridx = 3;
+        gbc.gridwidth = 2;
+        styleCheckBox(parallelCheckBox);
+        add(parallelCheckBox, gbc);
 
-        // Process button
+        // Process and cancel buttons
         processButton.addActionListener(e -> processFiles());
-        gbc.gridy = 3;
+        gbc.gridy = 7;
         gbc.gridx = 0;
-        gbc.gridwidth = 5;
+        gbc.gridwidth = 4;
         add(processButton, gbc);
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            controller.cancel();
+        });
+        cancelButton.setEnabled(false);
+        gbc.gridx = 4;
+        gbc.gridwidth = 1;
+        add(cancelButton, gbc);
 
         // Progress bar
         progressBar.setStringPainted(true);
         progressBar.setForeground(new Color(60, 200, 60));
-        gbc.gridy = 4;
+        gbc.gridy = 8;
         gbc.gridx = 0;
         gbc.gridwidth = 5;
         add(progressBar, gbc);
 
+        // Live throughput of the running batch
+        gbc.gridy = 9;
+        gbc.gridx = 0;
+        gbc.gridwidth = 5;
+        add(throughputPanel, gbc);
+
+        // Level filter for the log area
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        filterPanel.setBackground(new Color(40, 40, 40));
+        filterPanel.add(createLabel("Protokoll anzeigen:"));
+        for (BoundedLogView.Level level : BoundedLogView.Level.values()) {
+            JCheckBox levelCheckBox = new JCheckBox(level.name(), true);
+            styleCheckBox(levelCheckBox);
+            levelCheckBox.addActionListener(e -> logView.setLevelVisible(level, levelCheckBox.isSelected()));
+            filterPanel.add(levelCheckBox);
+        }
+        gbc.gridy = 10;
+        gbc.gridx = 0;
+        gbc.gridwidth = 5;
+        add(filterPanel, gbc);
+
         // Log area inside a scroll pane with a custom viewport for rounded background
         logArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
         logArea.setEditable(false);
         JScrollPane scrollPane = new JScrollPane(logArea);
         //scrollPane.setViewport(new RoundedViewport());
         scrollPane.setBorder(new EmptyBorder(0, 0, 0, 0));
-        gbc.gridy = 5;
+        gbc.gridy = 11;
         gbc.gridx = 0;
         gbc.gridwidth = 5;
         gbc.fill = GridBagConstraints.BOTH;
@@ -124,6 +212,12 @@ public class PdfToExcelFrame extends JFrame {
         return label;
     }
 
+    private void styleCheckBox(JCheckBox checkBox) {
+        checkBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        checkBox.setForeground(Color.WHITE);
+        checkBox.setBackground(new Color(40, 40, 40));
+    }
+
     private JTextField createRoundedTextField() {
         JTextField textField = new JTextField();
         // Не устанавливаем фиксированную ширину, чтобы поле адаптировалось горизонтально
@@ -171,19 +265,41 @@ public class PdfToExcelFrame extends JFrame {
     }
 
     private void chooseFile(JTextField targetField) {
+        OutputFormat format = selectedOutputFormat();
+        String extension = "." + format.getExtension();
         JFileChooser chooser = new JFileChooser();
         chooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("Excel-Dateien", "xlsx");
+        FileNameExtensionFilter filter = new FileNameExtensionFilter(format + "-Dateien", format.getExtension());
         chooser.setFileFilter(filter);
         if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File selectedFile = chooser.getSelectedFile();
-            if (!selectedFile.getName().endsWith(".xlsx")) {
-                selectedFile = new File(selectedFile.getAbsolutePath() + ".xlsx");
+            if (!selectedFile.getName().endsWith(extension)) {
+                selectedFile = new File(selectedFile.getAbsolutePath() + extension);
             }
             targetField.setText(selectedFile.getAbsolutePath());
         }
     }
 
+    private OutputFormat selectedOutputFormat() {
+        return (OutputFormat) outputFormatComboBox.getSelectedItem();
+    }
+
+    // Keeps the extension of an already chosen output file in sync with the selected format.
+    private void adjustOutputExtension() {
+        String path = excelFileField.getText();
+        if (path.isEmpty()) {
+            return;
+        }
+        for (OutputFormat format : OutputFormat.values()) {
+            String extension = "." + format.getExtension();
+            if (path.endsWith(extension)) {
+                path = path.substring(0, path.length() - extension.length());
+                break;
+            }
+        }
+        excelFileField.setText(path + "." + selectedOutputFormat().getExtension());
+    }
+
     private void processFiles() {
         String pdfFolderPath = pdfDirectoryField.getText();
         String excelOutputPath = excelFileField.getText();
@@ -196,39 +312,68 @@ public class PdfToExcelFrame extends JFrame {
             return;
         }
 
-        boolean useAuftragsinfo = useAuftragsinfoCheckBox.isSelected();
+        ProcessingOptions options = new ProcessingOptions();
+        options.setUseAuftragsinfo(useAuftragsinfoCheckBox.isSelected());
+        options.setOutputFormat(selectedOutputFormat());
+        options.setAppend(appendCheckBox.isSelected());
+        options.setDeduplicate(deduplicateCheckBox.isSelected());
+        options.setRecursive(recursiveCheckBox.isSelected());
+        options.setReadArchives(archivesCheckBox.isSelected());
+        options.setResume(resumeCheckBox.isSelected());
+        options.setDetectLayout(detectLayoutCheckBox.isSelected());
+        options.setParallelLoading(parallelCheckBox.isSelected());
         processButton.setEnabled(false);
+        cancelButton.setEnabled(true);
         progressBar.setValue(0);
-        logArea.setText("");
+        throughputPanel.reset(options.isParallelLoading());
+        logView.clear();
+
+        ProcessingJob job = new ProcessingJob();
+        ProcessingEventBus eventBus = openEventBus(Path.of(excelOutputPath + ".log"));
+        Timer refreshTimer = new Timer(UI_FRAME_MILLIS, e -> {
+            eventBus.drain(progressBar::setValue, this::appendLog);
+            throughputPanel.refresh(job.getMetrics());
+        });
+        refreshTimer.start();
 
-        SwingWorker<Void, Integer> worker = new SwingWorker<>() {
+        SwingWorker<Void, Void> worker = new SwingWorker<>() {
             @Override
             protected Void doInBackground() throws Exception {
-                controller.process(pdfFolderPath, excelOutputPath, useAuftragsinfo,
-                        progress -> publish(progress),
-                        message -> appendLog(message));
+                controller.process(pdfFolderPath, excelOutputPath, options, job, eventBus, eventBus);
                 return null;
             }
 
-            @Override
-            protected void process(java.util.List<Integer> chunks) {
-                int latestProgress = chunks.get(chunks.size() - 1);
-                progressBar.setValue(latestProgress);
-            }
-
             @Override
             protected void done() {
+                refreshTimer.stop();
+                while (eventBus.drain(progressBar::setValue, PdfToExcelFrame.this::appendLog)) {
+                    // deliver the remaining backlog
+                }
                 processButton.setEnabled(true);
+                cancelButton.setEnabled(false);
                 progressBar.setValue(100);
+                try {
+                    eventBus.closeSpill();
+                } catch (IOException e) {
+                    appendLog("[WARN] Log file could not be written: " + e.getMessage() + "\n");
+                }
             }
         };
         worker.execute();
     }
 
-    private void appendLog(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(message + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+    // Returns a bus that writes the complete log of the run to the file, or one without file if it cannot be created.
+    private ProcessingEventBus openEventBus(Path logFile) {
+        try {
+            return new ProcessingEventBus(logFile);
+        } catch (IOException e) {
+            appendLog("[WARN] Log file could not be created: " + e.getMessage() + "\n");
+            return new ProcessingEventBus();
+        }
+    }
+
+    // Appends a chunk of newline-terminated log lines; EDT only.
+    private void appendLog(String lines) {
+        logView.append(lines);
     }
 }
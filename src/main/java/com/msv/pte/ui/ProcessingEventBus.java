@@ -0,0 +1,129 @@
+package com.msv.pte.ui;
+
+import com.msv.pte.core.ParseAllPdfsInFolder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Hands progress and log events from the processing threads to the Swing UI without blocking them.
+ * <p>
+ * Log lines go into a lock-free ring buffer; progress is coalesced to the latest value. The UI
+ * drains the bus at a fixed frame rate and appends all new lines in one chunk. If the UI falls so far
+ * behind that the buffer is full, further lines are counted and reported instead of slowing down
+ * the workers; only error lines are kept in an overflow queue.
+ * <p>
+ * The optional spill file receives every line of the run. It is written by the publishing thread
+ * before the line enters the ring buffer, so it stays complete when lines are dropped from the view.
+ */
+class ProcessingEventBus implements ParseAllPdfsInFolder.ProgressListener, ParseAllPdfsInFolder.LogListener {
+
+    private static final int LOG_CAPACITY = 1 << 16;
+    // Lines appended per frame at most, so a backlog does not freeze the UI.
+    private static final int MAX_LINES_PER_FRAME = 5_000;
+
+    private final EventRingBuffer<String> logLines = new EventRingBuffer<>(LOG_CAPACITY);
+    private final AtomicInteger latestProgress = new AtomicInteger(-1);
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final Queue<String> overflowErrors = new ConcurrentLinkedQueue<>();
+    private volatile BufferedWriter spillWriter;
+    private volatile IOException spillError;
+
+    /** Creates a bus without a spill file. */
+    ProcessingEventBus() {
+    }
+
+    /**
+     * Creates a bus that writes every published line to a file.
+     *
+     * @param spillFile File receiving every line of the run; replaced if it exists.
+     * @throws IOException if the file cannot be created.
+     */
+    ProcessingEventBus(Path spillFile) throws IOException {
+        spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void onProgress(int progress) {
+        latestProgress.set(progress);
+    }
+
+    @Override
+    public void onLog(String message) {
+        spill(message);
+        if (!logLines.offer(message)) {
+            if (message.startsWith("[ERROR]")) {
+                overflowErrors.add(message);
+            } else {
+                droppedLines.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the spill file. Call once the run has finished publishing.
+     *
+     * @throws IOException if the file could not be written.
+     */
+    void closeSpill() throws IOException {
+        BufferedWriter writer = spillWriter;
+        spillWriter = null;
+        if (writer != null) {
+            writer.close();
+        }
+        if (spillError != null) {
+            throw spillError;
+        }
+    }
+
+    /**
+     * Delivers the events published since the last call. Must be called from a single thread (the EDT).
+     *
+     * @param progressSink Receives the latest progress, if it changed.
+     * @param logSink      Receives the new log lines as one newline-terminated chunk, if there are any.
+     * @return True if more lines are pending than one frame delivers.
+     */
+    boolean drain(IntConsumer progressSink, Consumer<String> logSink) {
+        int progress = latestProgress.getAndSet(-1);
+        if (progress >= 0) {
+            progressSink.accept(progress);
+        }
+        StringBuilder chunk = new StringBuilder();
+        int drained = logLines.drain(line -> chunk.append(line).append('\n'), MAX_LINES_PER_FRAME);
+        String error;
+        while ((error = overflowErrors.poll()) != null) {
+            chunk.append(error).append('\n');
+        }
+        long dropped = droppedLines.getAndSet(0);
+        if (dropped > 0) {
+            chunk.append("[WARN] ").append(dropped).append(" log lines skipped (log output too fast).\n");
+        }
+        if (!chunk.isEmpty()) {
+            logSink.accept(chunk.toString());
+        }
+        return drained == MAX_LINES_PER_FRAME;
+    }
+
+    private void spill(String message) {
+        BufferedWriter writer = spillWriter;
+        if (writer == null) {
+            return;
+        }
+        try {
+            // One write per line; the writer's lock keeps lines of concurrent workers intact.
+            writer.write(message + '\n');
+        } catch (IOException e) {
+            spillError = e;
+            spillWriter = null; // keep the run going; the view still shows the recent lines
+        }
+    }
+}
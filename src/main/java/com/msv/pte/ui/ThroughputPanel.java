@@ -0,0 +1,135 @@
+package com.msv.pte.ui;
+
+import com.msv.pte.core.PipelineMetrics;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Locale;
+
+/**
+ * Live dashboard of a running batch: throughput, remaining time, heap usage and the number of
+ * PDFs in each pipeline stage.
+ * <p>
+ * Rates are measured between samples and smoothed, so they follow changes in speed instead of
+ * averaging over the whole run. The stage gauges show where PDFs pile up: many waiting for a parser
+ * means the run is CPU-bound, many being read with an empty parser queue means it is I/O-bound, and
+ * a single PDF being parsed while nothing else moves is a straggler. Only the parallel loader has
+ * stages, so the gauges are hidden for sequential runs. Must be used on the EDT.
+ */
+class ThroughputPanel extends JPanel {
+
+    private static final int SAMPLE_MILLIS = 500;
+    // Weight of the newest sample in the smoothed rates.
+    private static final double SMOOTHING = 0.3;
+    private static final String NONE = "–";
+
+    private final JLabel filesLabel = createValueLabel();
+    private final JLabel pagesLabel = createValueLabel();
+    private final JLabel rowsLabel = createValueLabel();
+    private final JLabel etaLabel = createValueLabel();
+    private final JLabel heapLabel = createValueLabel();
+    private final JLabel stagesLabel = createValueLabel();
+
+    private PipelineMetrics.Snapshot previous;
+    private long lastSampleMillis;
+    private boolean rated;
+    private double filesRate;
+    private double pagesRate;
+    private double rowsRate;
+
+    ThroughputPanel() {
+        super(new GridLayout(2, 3, 10, 4));
+        setBackground(new Color(40, 40, 40));
+        add(filesLabel);
+        add(pagesLabel);
+        add(rowsLabel);
+        add(etaLabel);
+        add(heapLabel);
+        add(stagesLabel);
+        reset(false);
+    }
+
+    /**
+     * Clears the values for a new run.
+     *
+     * @param stageGauges True to show the stage gauges, i.e. for a run with the parallel loader.
+     */
+    void reset(boolean stageGauges) {
+        previous = null;
+        lastSampleMillis = 0;
+        rated = false;
+        filesRate = 0;
+        pagesRate = 0;
+        rowsRate = 0;
+        filesLabel.setText("Dateien/s: " + NONE);
+        pagesLabel.setText("Seiten/s: " + NONE);
+        rowsLabel.setText("Zeilen/s: " + NONE);
+        etaLabel.setText("Restzeit: " + NONE);
+        stagesLabel.setText("Lesen 0 · Wartend 0 · Parsen 0 · Übergabe 0");
+        stagesLabel.setVisible(stageGauges);
+        updateHeap();
+    }
+
+    /**
+     * Takes a sample of the metrics if the sampling interval has passed; may be called at frame rate.
+     *
+     * @param metrics Metrics of the running batch.
+     */
+    void refresh(PipelineMetrics metrics) {
+        long now = System.currentTimeMillis();
+        if (now - lastSampleMillis < SAMPLE_MILLIS) {
+            return;
+        }
+        lastSampleMillis = now;
+        PipelineMetrics.Snapshot snapshot = metrics.snapshot();
+        if (previous != null) {
+            double seconds = (snapshot.elapsedNanos() - previous.elapsedNanos()) / 1e9;
+            if (seconds > 0) {
+                filesRate = smooth(filesRate, (snapshot.files() - previous.files()) / seconds);
+                pagesRate = smooth(pagesRate, (snapshot.pages() - previous.pages()) / seconds);
+                rowsRate = smooth(rowsRate, (snapshot.rows() - previous.rows()) / seconds);
+                rated = true;
+            }
+            filesLabel.setText("Dateien/s: " + format(filesRate));
+            pagesLabel.setText("Seiten/s: " + format(pagesRate));
+            rowsLabel.setText("Zeilen/s: " + format(rowsRate));
+            etaLabel.setText("Restzeit: " + eta(snapshot));
+        }
+        previous = snapshot;
+        stagesLabel.setText("Lesen " + snapshot.reading()
+                + " · Wartend " + snapshot.waitingForParser()
+                + " · Parsen " + snapshot.parsing()
+                + " · Übergabe " + snapshot.waitingForCollector());
+        updateHeap();
+    }
+
+    private double smooth(double current, double sample) {
+        return rated ? current + SMOOTHING * (sample - current) : sample;
+    }
+
+    private String eta(PipelineMetrics.Snapshot snapshot) {
+        if (!snapshot.discoveryComplete() || filesRate <= 0) {
+            return NONE;
+        }
+        long remaining = Math.max(0, snapshot.discoveredFiles() - snapshot.files());
+        long seconds = Math.round(remaining / filesRate);
+        return String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
+    private void updateHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+        heapLabel.setText("Heap: " + usedMb + " / " + (runtime.maxMemory() >> 20) + " MB");
+    }
+
+    private static String format(double rate) {
+        return String.format(Locale.ROOT, "%.1f", rate);
+    }
+
+    private static JLabel createValueLabel() {
+        JLabel label = new JLabel();
+        label.setForeground(Color.WHITE);
+        label.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        return label;
+    }
+}
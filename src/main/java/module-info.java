@@ -14,6 +14,8 @@ module com.example.pdfToExcel {
     requires org.apache.poi.ooxml;
     requires org.apache.poi.poi;
     requires java.desktop;    // Automatischer Modulname (ggf. anpassen)
+    requires java.management; // GC-Statistiken der Benchmark-Werkzeuge
+    requires jdk.management;  // Allokationszähler je Thread (Profiling)
 
     // Falls nötig:
     // requires java.logging;     // z.B. wenn Logging-Klassen genutzt werden
@@ -0,0 +1,245 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.core.DocumentParsers;
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.database.BranchNumbers;
+import com.msv.pte.database.DeviceModels;
+
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic order confirmations and Auftragsinfo lists together with the rows each parser must
+ * produce for them.
+ * <p>
+ * The expected rows are derived from what was written, not from a parser run: order and AB
+ * numbers, the models of each position (an unknown first word flagged red) and the desired date
+ * as delivery week "KWJJ" computed with {@code java.time}, or the keyword or "00.00.0000" flagged
+ * red. The corpus is built from a fixed seed, so every run checks the same documents.
+ */
+final class GoldenCorpus {
+
+    enum Layout { CONFIRMATION, AUFTRAGSINFO }
+
+    /**
+     * A document of the corpus.
+     *
+     * @param fileName     File name of the PDF.
+     * @param layout       Layout the document is written in.
+     * @param pages        Text lines of each page.
+     * @param expectedRows Rendered rows (see {@link #render}) per name of a parser that must produce them.
+     */
+    record Document(String fileName, Layout layout, List<List<String>> pages, Map<String, List<String>> expectedRows) {
+    }
+
+    private static final long SEED = 20_240_501L;
+    private static final int CONFIRMATIONS = 12;
+    private static final int AUFTRAGSINFOS = 8;
+    private static final int LINES_PER_PAGE = 50;
+    private static final String NO_DATE = "00.00.0000";
+    // Each keyword occurs in no other keyword, so the expected date does not depend on search order.
+    private static final String[] KEYWORDS = {"auslauf", "ersatzlos", "neuanlauf", "unbekannt"};
+
+    private GoldenCorpus() {
+    }
+
+    /** @return The documents of the corpus, confirmations first. */
+    static List<Document> create() {
+        Random random = new Random(SEED);
+        List<String> models = unambiguousModels();
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < CONFIRMATIONS; i++) {
+            documents.add(confirmation(String.format(Locale.ROOT, "confirmation_%02d.pdf", i), random, models));
+        }
+        for (int i = 0; i < AUFTRAGSINFOS; i++) {
+            documents.add(auftragsinfo(String.format(Locale.ROOT, "auftragsinfo_%02d.pdf", i), random, models));
+        }
+        return documents;
+    }
+
+    /**
+     * Renders a row in a form that compares all its fields.
+     *
+     * @param row Row produced by a parser.
+     * @return The fields separated by '|'.
+     */
+    static String render(DataRow row) {
+        return render(row.getOrderNumber(), row.getModel(), row.getConfirmationNumber(), row.getDesiredDate(),
+                row.isHighlightModel(), row.isHighlightDate());
+    }
+
+    private static String render(String orderNumber, String model, String confirmationNumber, String date,
+                                 boolean highlightModel, boolean highlightDate) {
+        return orderNumber + "|" + model + "|" + confirmationNumber + "|" + date + "|" + highlightModel + "|" + highlightDate;
+    }
+
+    private static Document confirmation(String fileName, Random random, List<String> models) {
+        String orderNumber = branchCode(random) + digits(random, 4);
+        String confirmationNumber = "144" + digits(random, 7);
+        PageBuilder pages = new PageBuilder("Auftragsbestaetigung " + confirmationNumber);
+        pages.add("Auftragsbestaetigung Nr. " + confirmationNumber + " vom 02.05.2024");
+        pages.add("Bestellung " + orderNumber + " vom 29.04.2024 Ihr Zeichen: Einkauf");
+        pages.add("Pos. Artikel Bezeichnung Menge Einzelpreis");
+        List<String> expected = new ArrayList<>();
+        int positions = 10 + random.nextInt(70);
+        for (int position = 1; position <= positions; position++) {
+            List<String> positionModels = new ArrayList<>();
+            List<Boolean> red = new ArrayList<>();
+            String firstWord;
+            if (random.nextInt(8) == 0) {
+                firstWord = "SONDER" + digits(random, 3);
+                red.add(true);
+            } else {
+                firstWord = pick(random, models);
+                red.add(false);
+            }
+            positionModels.add(firstWord);
+            pages.add(String.format(Locale.ROOT, "%03d %s Einbaugeraet Stk %d %d,00 EUR",
+                    position * 10, firstWord, 1 + random.nextInt(3), 200 + random.nextInt(1800)));
+            if (random.nextInt(5) == 0) {
+                String accessory = pick(random, models);
+                positionModels.add(accessory);
+                red.add(false);
+                pages.add("Zubehoer: " + accessory);
+            }
+            String date;
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    LocalDate day = LocalDate.of(2024 + random.nextInt(3), 1, 1).plusDays(random.nextInt(365));
+                    pages.add("Wunschliefertermin: " + (random.nextBoolean()
+                            ? day.getDayOfMonth() + "." + day.getMonthValue() + "." + day.getYear()
+                            : String.format(Locale.ROOT, "%02d.%02d.%d", day.getDayOfMonth(), day.getMonthValue(), day.getYear())));
+                    date = week(day.get(WeekFields.ISO.weekOfYear()), day.getYear());
+                }
+                case 1 -> {
+                    int week = 1 + random.nextInt(52);
+                    int year = 2024 + random.nextInt(3);
+                    pages.add("Woche " + week + "." + year);
+                    date = week(week, year);
+                }
+                case 2 -> {
+                    String keyword = KEYWORDS[random.nextInt(KEYWORDS.length)];
+                    pages.add("Artikel " + keyword);
+                    date = keyword;
+                }
+                default -> date = NO_DATE;
+            }
+            boolean dateRed = date.equals(NO_DATE) || !Character.isDigit(date.charAt(0));
+            for (int i = 0; i < positionModels.size(); i++) {
+                expected.add(render(orderNumber, positionModels.get(i), confirmationNumber, date, red.get(i), dateRed));
+            }
+        }
+        Map<String, List<String>> expectedRows = new LinkedHashMap<>();
+        expectedRows.put(DocumentParsers.CONFIRMATION.getName(), expected);
+        return new Document(fileName, Layout.CONFIRMATION, pages.pages(), expectedRows);
+    }
+
+    private static Document auftragsinfo(String fileName, Random random, List<String> models) {
+        PageBuilder pages = new PageBuilder("Auftragsinfo");
+        pages.add("Auftragsinfo");
+        List<String> expected = new ArrayList<>();
+        List<String> expectedByLine = new ArrayList<>();
+        int rows = 20 + random.nextInt(150);
+        String abNumber = null;
+        for (int row = 0; row < rows; row++) {
+            if (abNumber == null || random.nextInt(3) == 0) {
+                abNumber = "145" + digits(random, 7);
+            }
+            String contract = branchCode(random) + digits(random, 3);
+            List<String> lineModels = new ArrayList<>();
+            lineModels.add(pick(random, models));
+            if (random.nextInt(6) == 0) {
+                lineModels.add(pick(random, models));
+            }
+            String date;
+            String lineDate;
+            if (random.nextInt(5) == 0) {
+                date = "auslauf";
+                lineDate = null;
+            } else {
+                lineDate = (1 + random.nextInt(52)) + "." + (2024 + random.nextInt(3));
+                date = "KW " + lineDate;
+            }
+            pages.add(abNumber + " " + contract + " " + String.join(" ", lineModels) + " " + date);
+            for (String model : lineModels) {
+                expected.add(render(contract, model, abNumber, date, false, false));
+                expectedByLine.add(render(contract, model, abNumber, lineDate, false, false));
+            }
+        }
+        Map<String, List<String>> expectedRows = new LinkedHashMap<>();
+        expectedRows.put(DocumentParsers.AUFTRAGSINFO.getName(), expected);
+        expectedRows.put(DocumentParsers.AUFTRAGSINFO_LINES.getName(), expectedByLine);
+        return new Document(fileName, Layout.AUFTRAGSINFO, pages.pages(), expectedRows);
+    }
+
+    /** Collects lines into pages; continuation pages start with a page header. */
+    private static final class PageBuilder {
+        private final String header;
+        private final List<List<String>> pages = new ArrayList<>();
+        private List<String> page = new ArrayList<>();
+
+        PageBuilder(String header) {
+            this.header = header;
+        }
+
+        void add(String line) {
+            if (page.size() == LINES_PER_PAGE) {
+                pages.add(page);
+                page = new ArrayList<>();
+                page.add(header + " Seite " + (pages.size() + 1));
+            }
+            page.add(line);
+        }
+
+        List<List<String>> pages() {
+            List<List<String>> all = new ArrayList<>(pages);
+            all.add(page);
+            return all;
+        }
+    }
+
+    /**
+     * Models that consist of letters and digits only and occur once in the model list. Any other
+     * model could also match inside a longer one or yield one row per list entry, and the expected
+     * rows would depend on the order of the list.
+     */
+    private static List<String> unambiguousModels() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String model : DeviceModels.getDeviceModels()) {
+            counts.merge(model.toUpperCase(Locale.ROOT), 1, Integer::sum);
+        }
+        List<String> models = new ArrayList<>();
+        for (String model : DeviceModels.getDeviceModels()) {
+            if (counts.get(model.toUpperCase(Locale.ROOT)) == 1 && model.matches("[A-Za-z0-9]+")) {
+                models.add(model);
+            }
+        }
+        return models;
+    }
+
+    private static String branchCode(Random random) {
+        return BranchNumbers.BRANCH_NUMBERS[random.nextInt(BranchNumbers.BRANCH_NUMBERS.length)];
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder digits = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String week(int week, int year) {
+        return String.format(Locale.ROOT, "%02d%02d", week, year % 100);
+    }
+}
@@ -0,0 +1,55 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.core.DocumentParser;
+import com.msv.pte.core.DocumentParsers;
+import com.msv.pte.core.ParserSelector;
+import com.msv.pte.core.ProcessingOptions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the rows of every parser, and of layout detection, with the expected rows of the
+ * golden corpus.
+ */
+class GoldenCorpusTest {
+
+    @TestFactory
+    List<DynamicTest> expectedRows() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Map.Entry<GoldenCorpus.Document, String> entry : GoldenCorpusTexts.get().entrySet()) {
+            GoldenCorpus.Document document = entry.getKey();
+            for (Map.Entry<String, List<String>> expected : document.expectedRows().entrySet()) {
+                tests.add(DynamicTest.dynamicTest(document.fileName() + " (" + expected.getKey() + ")", () ->
+                        assertEquals(expected.getValue(),
+                                GoldenCorpusTexts.render(DocumentParsers.byName(expected.getKey()), entry.getValue()))));
+            }
+        }
+        return tests;
+    }
+
+    @TestFactory
+    List<DynamicTest> layoutDetection() {
+        ProcessingOptions options = new ProcessingOptions();
+        options.setDetectLayout(true);
+        ParserSelector detection = DocumentParsers.selectorFor(options);
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Map.Entry<GoldenCorpus.Document, String> entry : GoldenCorpusTexts.get().entrySet()) {
+            GoldenCorpus.Document document = entry.getKey();
+            String layoutParser = document.layout() == GoldenCorpus.Layout.CONFIRMATION
+                    ? DocumentParsers.CONFIRMATION.getName() : DocumentParsers.AUFTRAGSINFO.getName();
+            tests.add(DynamicTest.dynamicTest(document.fileName(), () -> {
+                DocumentParser detected = detection.select(entry.getValue());
+                assertEquals(document.expectedRows().get(layoutParser),
+                        GoldenCorpusTexts.render(detected, entry.getValue()),
+                        "rows of the detected parser " + detected.getName());
+            }));
+        }
+        return tests;
+    }
+}
@@ -0,0 +1,77 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.core.DocumentParser;
+import com.msv.pte.core.ParseAllPdfsInFolder.PDFParsingService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text of the {@link GoldenCorpus} documents as a run sees it: the PDFs are written into
+ * {@code target/golden-corpus} and their text is extracted with {@link PDFParsingService}.
+ * The corpus is built once per test JVM and shared by the test classes.
+ */
+final class GoldenCorpusTexts {
+
+    private static final Path CORPUS = Paths.get("target", "golden-corpus");
+
+    private static Map<GoldenCorpus.Document, String> texts;
+
+    private GoldenCorpusTexts() {
+    }
+
+    /** @return Extracted text per document, in corpus order. */
+    static synchronized Map<GoldenCorpus.Document, String> get() {
+        if (texts == null) {
+            try {
+                texts = Collections.unmodifiableMap(writeAndExtract(GoldenCorpus.create()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return texts;
+    }
+
+    /** @return Extracted text of the documents of one layout, in corpus order. */
+    static List<String> of(GoldenCorpus.Layout layout) {
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<GoldenCorpus.Document, String> entry : get().entrySet()) {
+            if (entry.getKey().layout() == layout) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /** @return The rows of the parser for the text, rendered like the expected rows of the corpus. */
+    static List<String> render(DocumentParser parser, String text) {
+        List<String> rows = new ArrayList<>();
+        parser.parse(text, row -> rows.add(GoldenCorpus.render(row)));
+        return rows;
+    }
+
+    private static Map<GoldenCorpus.Document, String> writeAndExtract(List<GoldenCorpus.Document> documents)
+            throws IOException {
+        Files.createDirectories(CORPUS);
+        PDFParsingService pdfParser = new PDFParsingService();
+        Map<GoldenCorpus.Document, String> result = new LinkedHashMap<>();
+        for (GoldenCorpus.Document document : documents) {
+            Path file = CORPUS.resolve(document.fileName());
+            SyntheticPdfWriter.write(file, document.pages());
+            String text = pdfParser.extractText(file);
+            if (text == null) {
+                throw new IOException("Text of " + file + " could not be extracted");
+            }
+            result.put(document, text);
+        }
+        return result;
+    }
+}
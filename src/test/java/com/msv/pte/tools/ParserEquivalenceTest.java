@@ -0,0 +1,164 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.core.DocumentParsers;
+import com.msv.pte.parser.DesiredDateProcessor;
+import com.msv.pte.tools.PatternPairs.PatternPair;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the production parsers with the frozen regex implementation in
+ * {@link ReferenceConfirmationParser} and the pattern automata with their regular expressions.
+ */
+class ParserEquivalenceTest {
+
+    private static final int MUTATIONS = 2;
+    // Lines of a document a mutation is built from; the reference parser is slow on long texts.
+    private static final int MUTATION_LINES = 60;
+    private static final String[] NOISE = {"Seite 2 von 3", "Bestellung", "144", "Woche", "KW 12.2025",
+            "Wunschliefertermin:", "010", "auslauf", "\t", ""};
+    private static final String[] KEYWORDS = {"auslauf", "neuanlauf", "ersatzlos", "ausgelaufen",
+            "bezugsberechtigung", "nicht bezogen", "berechtigung", "nicht bekannt", "unbekannt"};
+
+    @Test
+    void confirmationParserMatchesReference() {
+        ReferenceConfirmationParser reference = new ReferenceConfirmationParser();
+        List<String> texts = GoldenCorpusTexts.of(GoldenCorpus.Layout.CONFIRMATION);
+        Random random = new Random(GoldenCorpusTexts.get().size());
+        List<String> inputs = new ArrayList<>();
+        for (String text : texts) {
+            inputs.add(text);
+            for (int i = 0; i < MUTATIONS; i++) {
+                inputs.add(mutate(text, random));
+            }
+        }
+        for (int i = 0; i < inputs.size(); i++) {
+            assertEquals(GoldenCorpusTexts.render(reference, inputs.get(i)),
+                    GoldenCorpusTexts.render(DocumentParsers.CONFIRMATION, inputs.get(i)),
+                    "rows of equivalence input " + i);
+        }
+    }
+
+    @Test
+    void automataMatchRegularExpressions() {
+        for (String text : GoldenCorpusTexts.get().values()) {
+            for (String line : text.split("\\r?\\n")) {
+                for (PatternPair pair : PatternPairs.ALL) {
+                    assertEquals(pair.regexMatches(line), pair.automatonMatches(line),
+                            pair.name() + " in line: " + line);
+                }
+            }
+        }
+    }
+
+    /** Every day from 1990 to 2100, with and without leading zeros. */
+    @Test
+    void transformDateMatchesReferenceForEveryDay() {
+        LocalDate end = LocalDate.of(2101, 1, 1);
+        for (LocalDate date = LocalDate.of(1990, 1, 1); date.isBefore(end); date = date.plusDays(1)) {
+            assertTransformDate(date.getDayOfMonth() + "." + date.getMonthValue() + "." + date.getYear());
+            assertTransformDate(String.format(Locale.ROOT, "%02d.%02d.%04d",
+                    date.getDayOfMonth(), date.getMonthValue(), date.getYear()));
+        }
+    }
+
+    /** Days and months out of range, including 29 February of leap and common years. */
+    @Test
+    void transformDateMatchesReferenceForInvalidDates() {
+        for (int year : new int[]{1990, 1999, 2000, 2024, 2025, 2099, 2100}) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    assertTransformDate(day + "." + month + "." + year);
+                    assertTransformDate(String.format(Locale.ROOT, "%02d.%02d.%04d", day, month, year));
+                }
+            }
+        }
+    }
+
+    @Test
+    void transformDateMatchesReferenceForWeeks() {
+        for (int year = 1990; year <= 2100; year++) {
+            for (int week = 0; week <= 99; week++) {
+                assertTransformDate(week + "." + year);
+                if (week < 10) {
+                    assertTransformDate("0" + week + "." + year);
+                }
+            }
+        }
+    }
+
+    @Test
+    void transformDateMatchesReferenceForOtherValues() {
+        List<String> values = new ArrayList<>(Arrays.asList(null, "", "00.00.0000", "0.0.0000", "1.1.90",
+                "1.1.19900", "123.1.2024", "1.123.2024", "12.20245", "KW 12.2025", " 1.1.2024", "1.1.2024 ",
+                "1-1-2024", "1.1.2024.1", "a.b.cdef", "１.１.２０２４", "31.02.2024"));
+        for (String keyword : KEYWORDS) {
+            values.add(keyword);
+            values.add(keyword.toUpperCase(Locale.ROOT));
+            values.add(Character.toUpperCase(keyword.charAt(0)) + keyword.substring(1));
+        }
+        for (String value : values) {
+            assertTransformDate(value);
+            assertEquals(ReferenceConfirmationParser.isDateRed(value), DesiredDateProcessor.isDateRed(value),
+                    "isDateRed(" + value + ")");
+        }
+    }
+
+    @Test
+    void findDesiredDateMatchesReference() {
+        String[] prefixes = {"Wunschliefertermin:", "WUNSCHLIEFERTERMIN", "wunschliefertermin : ", "Woche",
+                "woche:", "Woche\t", "KW", "Termin:", ""};
+        String[] dates = {"1.1.2024", "01.01.2024", "31.12.2100", "12.2025", "1.2025", "123.2025", "1.1.24",
+                "00.00.0000", "auslauf"};
+        for (String prefix : prefixes) {
+            for (String date : dates) {
+                for (String line : new String[]{prefix + date, prefix + " " + date, "010 A " + prefix + date + " x",
+                        prefix + date + "0", prefix + "  " + date + "." + date}) {
+                    assertEquals(ReferenceConfirmationParser.findDesiredDate(line),
+                            DesiredDateProcessor.findDesiredDate(line), "findDesiredDate(" + line + ")");
+                }
+            }
+        }
+    }
+
+    private static void assertTransformDate(String value) {
+        assertEquals(ReferenceConfirmationParser.transformDate(value), DesiredDateProcessor.transformDate(value),
+                "transformDate(" + value + ")");
+    }
+
+    /** Applies a few random edits to a window of the lines of a text. */
+    private static String mutate(String text, Random random) {
+        List<String> all = Arrays.asList(text.split("\n", -1));
+        int from = random.nextInt(Math.max(1, all.size() - MUTATION_LINES));
+        List<String> lines = new ArrayList<>(all.subList(from, Math.min(all.size(), from + MUTATION_LINES)));
+        if (from > 0) {
+            lines.addAll(0, all.subList(0, Math.min(3, from)));
+        }
+        int edits = 1 + random.nextInt(5);
+        for (int edit = 0; edit < edits && lines.size() > 1; edit++) {
+            int i = random.nextInt(lines.size() - 1);
+            switch (random.nextInt(6)) {
+                case 0 -> lines.remove(i);
+                case 1 -> lines.add(i, lines.get(i));
+                case 2 -> lines.set(i, lines.set(i + 1, lines.get(i)));
+                case 3 -> lines.set(i, lines.get(i) + " " + lines.remove(i + 1));
+                case 4 -> lines.set(i, random.nextBoolean()
+                        ? lines.get(i).toUpperCase(Locale.ROOT) : lines.get(i).toLowerCase(Locale.ROOT));
+                default -> {
+                    String line = lines.get(i);
+                    int at = random.nextInt(line.length() + 1);
+                    lines.set(i, line.substring(0, at) + NOISE[random.nextInt(NOISE.length)] + line.substring(at));
+                }
+            }
+        }
+        return String.join("\n", lines);
+    }
+}
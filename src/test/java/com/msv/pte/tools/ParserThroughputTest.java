@@ -0,0 +1,86 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.core.DocumentParser;
+import com.msv.pte.core.DocumentParsers;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the order confirmation parser relative to the frozen regex implementation it
+ * replaced, measured in the same JVM on the confirmations of the golden corpus. The ratio of the two
+ * depends far less on the machine than absolute throughput, so the check needs no baseline file.
+ * <p>
+ * The test fails when the speedup over the reference falls more than {@link #MAX_SLOWDOWN_PERCENT}
+ * below {@link #BASELINE_SPEEDUP}. Both can be overridden with the system properties
+ * {@code pte.throughput.baselineSpeedup} and {@code pte.throughput.maxSlowdownPercent}, e.g.
+ * {@code mvn test -Dpte.throughput.maxSlowdownPercent=50} on a noisy machine.
+ */
+class ParserThroughputTest {
+
+    /**
+     * Speedup of the confirmation parser over the reference as measured when the parser last changed
+     * on purpose (145x to 186x in repeated runs). Update it together with such changes.
+     */
+    private static final double BASELINE_SPEEDUP = 150;
+    /** Allowed loss of speedup against the baseline, in percent; covers the noise between runs. */
+    private static final double MAX_SLOWDOWN_PERCENT = 30;
+    private static final int SAMPLES = 5;
+    private static final long SAMPLE_NANOS = 200_000_000L;
+    private static final long WARM_UP_NANOS = 1_000_000_000L;
+
+    @Test
+    void confirmationParserKeepsItsSpeedupOverReference() {
+        double baselineSpeedup = doubleProperty("pte.throughput.baselineSpeedup", BASELINE_SPEEDUP);
+        double maxSlowdownPercent = doubleProperty("pte.throughput.maxSlowdownPercent", MAX_SLOWDOWN_PERCENT);
+        List<String> texts = GoldenCorpusTexts.of(GoldenCorpus.Layout.CONFIRMATION);
+        double reference = charsPerSecond(new ReferenceConfirmationParser(), texts);
+        double current = charsPerSecond(DocumentParsers.CONFIRMATION, texts);
+        double speedup = current / reference;
+        double minimum = baselineSpeedup * (1 - maxSlowdownPercent / 100);
+        assertTrue(speedup >= minimum, String.format(Locale.ROOT,
+                "%s parses %,.0f chars/s, %.1fx the reference (%,.0f chars/s); expected at least %.1fx "
+                        + "(baseline %.1fx, at most %.0f%% slower)", DocumentParsers.CONFIRMATION.getName(),
+                current, speedup, reference, minimum, baselineSpeedup, maxSlowdownPercent));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value);
+    }
+
+    /** @return Median of several timed samples after a warm-up, in characters per second. */
+    private static double charsPerSecond(DocumentParser parser, List<String> texts) {
+        long chars = 0;
+        for (String text : texts) {
+            chars += text.length();
+        }
+        sample(parser, texts, WARM_UP_NANOS);
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            long rounds = sample(parser, texts, SAMPLE_NANOS);
+            samples[i] = chars * rounds / ((System.nanoTime() - start) / 1e9);
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    /** Parses the texts repeatedly for at least the given time and returns the number of rounds. */
+    private static long sample(DocumentParser parser, List<String> texts, long nanos) {
+        long rounds = 0;
+        long[] rows = new long[1];
+        long end = System.nanoTime() + nanos;
+        do {
+            for (String text : texts) {
+                parser.parse(text, row -> rows[0]++);
+            }
+            rounds++;
+        } while (System.nanoTime() < end);
+        return rounds;
+    }
+}
@@ -0,0 +1,225 @@
+package com.msv.pte.tools;
+
+import com.msv.pte.core.DocumentParser;
+import com.msv.pte.core.ParseAllPdfsInFolder.DataRow;
+import com.msv.pte.database.BranchNumbers;
+import com.msv.pte.database.DeviceModels;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Frozen copy of the original regex-based order confirmation parser (OrderNumberProcessor,
+ * ConfrmationNumberProcessor, PositionNumberProcessor and DesiredDateProcessor as they were before
+ * the single-pass extractor and the automata). It is the reference the production parser is
+ * compared with and must not follow later changes of the parser package.
+ * <p>
+ * The only deviation from the original code is that the model patterns are compiled once instead
+ * of once per line; the patterns themselves are unchanged. The model and branch lists are data and
+ * are taken from the database package.
+ */
+final class ReferenceConfirmationParser implements DocumentParser {
+
+    private static final Pattern ORDER_PATTERN = Pattern.compile("(?i)(Bestellung|Bestelltext)\\s+(\\S{5,6})");
+    private static final Pattern CONFIRMATION_PATTERN = Pattern.compile("\\b(144|145)\\d{6,8}\\b");
+    private static final Pattern POSITION_PATTERN = Pattern.compile("^\\s*(\\d{3})\\b");
+    private static final Pattern DATE_PATTERN = Pattern.compile(
+            "(?i)(?:WUNSCHLIEFERTERMIN|WOCHE)\\s*:?\\s*(\\d{1,2}\\.\\d{1,2}\\.\\d{4}|\\d{1,2}\\.\\d{4})");
+    // Built like the original sets, so both iterate in the same order when searching block lines.
+    private static final Set<String> POSITION_KEYWORDS = new HashSet<>(Arrays.asList(
+            "auslauf", "neuanlauf", "ersatzlos", "ausgelaufen",
+            "bezugsberechtigung", "nicht bezogen", "berechtigung",
+            "nicht bekannt", "unbekannt"
+    ));
+    private static final Set<String> DATE_KEYWORDS = new HashSet<>(Arrays.asList(
+            "auslauf", "neuanlauf", "ersatzlos", "ausgelaufen",
+            "bezugsberechtigung", "nicht bezogen", "berechtigung",
+            "nicht bekannt", "unbekannt"
+    ));
+    private static final String INVALID_DATE = "00.00.0000";
+    private static final String[] MODELS = DeviceModels.getDeviceModels();
+    private static final List<Pattern> MODEL_PATTERNS = new ArrayList<>();
+
+    static {
+        for (String knownModel : MODELS) {
+            MODEL_PATTERNS.add(Pattern.compile("\\b" + Pattern.quote(knownModel) + "\\b", Pattern.CASE_INSENSITIVE));
+        }
+    }
+
+    private static final class PositionData {
+        private final List<Model> models = new ArrayList<>();
+        private final List<String> lines = new ArrayList<>();
+        private String desiredDate;
+    }
+
+    private record Model(String name, boolean red) {
+    }
+
+    @Override
+    public String getName() {
+        return "confirmation-reference";
+    }
+
+    @Override
+    public void parse(String pdfText, RowSink sink) {
+        String orderNumber = findOrderNumber(pdfText);
+        String confirmationNumber = findConfirmationNumber(pdfText);
+        for (PositionData posData : extractPositionsModelsAndDates(pdfText)) {
+            String finalDate = transformDate(posData.desiredDate);
+            for (Model model : posData.models) {
+                DataRow row = new DataRow();
+                row.setOrderNumber(orderNumber);
+                row.setModel(model.name());
+                row.setConfirmationNumber(confirmationNumber);
+                row.setDesiredDate(finalDate);
+                row.setHighlightModel(model.red());
+                row.setHighlightDate(isDateRed(finalDate));
+                sink.accept(row);
+            }
+        }
+    }
+
+    private static String findOrderNumber(String pdfText) {
+        Matcher matcher = ORDER_PATTERN.matcher(pdfText);
+        while (matcher.find()) {
+            String candidate = matcher.group(2);
+            if (candidate != null && candidate.length() >= 2) {
+                String branchCode = candidate.substring(0, 2).toUpperCase();
+                for (String branch : BranchNumbers.BRANCH_NUMBERS) {
+                    if (branch.equalsIgnoreCase(branchCode)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String findConfirmationNumber(String pdfText) {
+        Matcher matcher = CONFIRMATION_PATTERN.matcher(pdfText);
+        return matcher.find() ? matcher.group() : null;
+    }
+
+    private static List<PositionData> extractPositionsModelsAndDates(String pdfText) {
+        List<PositionData> positions = new ArrayList<>();
+        PositionData currentBlock = null;
+        for (String line : pdfText.split("\\r?\\n")) {
+            Matcher matcher = POSITION_PATTERN.matcher(line);
+            if (matcher.find()) {
+                if (currentBlock != null) {
+                    finalizeBlock(currentBlock);
+                }
+                currentBlock = new PositionData();
+                positions.add(currentBlock);
+                currentBlock.lines.add(line);
+                String remaining = line.substring(matcher.end()).trim();
+                if (!remaining.isEmpty()) {
+                    String firstWord = remaining.split("\\s+", 2)[0];
+                    if (!isKnownModel(firstWord)) {
+                        currentBlock.models.add(new Model(firstWord, true));
+                    }
+                }
+                addModelsAndDateFromLine(line, currentBlock);
+            } else if (currentBlock != null) {
+                currentBlock.lines.add(line);
+                addModelsAndDateFromLine(line, currentBlock);
+            }
+        }
+        if (currentBlock != null) {
+            finalizeBlock(currentBlock);
+        }
+        return positions;
+    }
+
+    private static void finalizeBlock(PositionData block) {
+        if (block.desiredDate == null || INVALID_DATE.equals(block.desiredDate)) {
+            String keyword = null;
+            search:
+            for (String line : block.lines) {
+                String lowerLine = line.toLowerCase();
+                for (String kw : POSITION_KEYWORDS) {
+                    if (lowerLine.contains(kw)) {
+                        keyword = kw;
+                        break search;
+                    }
+                }
+            }
+            block.desiredDate = keyword != null ? keyword : INVALID_DATE;
+        }
+    }
+
+    private static void addModelsAndDateFromLine(String line, PositionData block) {
+        for (int i = 0; i < MODELS.length; i++) {
+            if (MODEL_PATTERNS.get(i).matcher(line).find()) {
+                block.models.add(new Model(MODELS[i], false));
+            }
+        }
+        String date = findDesiredDate(line);
+        if (date != null) {
+            block.desiredDate = date;
+        }
+    }
+
+    private static boolean isKnownModel(String candidate) {
+        for (String model : MODELS) {
+            if (model.equalsIgnoreCase(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Original DesiredDateProcessor.findDesiredDate. */
+    static String findDesiredDate(String line) {
+        Matcher matcher = DATE_PATTERN.matcher(line);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /** Original DesiredDateProcessor.transformDate. */
+    static String transformDate(String rawDate) {
+        if (rawDate == null || INVALID_DATE.equals(rawDate)) {
+            return rawDate;
+        }
+        if (DATE_KEYWORDS.contains(rawDate.toLowerCase())) {
+            return rawDate;
+        }
+        if (rawDate.matches("^\\d{1,2}\\.\\d{1,2}\\.\\d{4}$")) {
+            try {
+                LocalDate date = LocalDate.parse(rawDate, DateTimeFormatter.ofPattern("d.M.yyyy"));
+                int week = date.get(WeekFields.ISO.weekOfYear());
+                int yearShort = date.getYear() % 100;
+                return String.format("%02d%02d", week, yearShort);
+            } catch (DateTimeParseException ex) {
+                return rawDate;
+            }
+        }
+        if (rawDate.matches("^\\d{1,2}\\.\\d{4}$")) {
+            try {
+                String[] parts = rawDate.split("\\.");
+                int week = Integer.parseInt(parts[0]);
+                int year = Integer.parseInt(parts[1]);
+                return String.format("%02d%02d", week, year % 100);
+            } catch (NumberFormatException ex) {
+                return rawDate;
+            }
+        }
+        return rawDate;
+    }
+
+    /** Original DesiredDateProcessor.isDateRed. */
+    static boolean isDateRed(String date) {
+        if (date == null) {
+            return false;
+        }
+        return INVALID_DATE.equals(date) || DATE_KEYWORDS.contains(date.toLowerCase());
+    }
+}